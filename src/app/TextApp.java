@@ -2,16 +2,35 @@ package app;
 
 import core.DefaultNormalizer;
 import core.DefaultSentenceTokenizer;
+import core.LemmatizingTokenizer;
+import core.Normalizer;
+import core.SentenceTokenizer;
 import core.TextAnalyzer;
+import core.Tokenizer;
 import core.WhitespaceTokenizer;
+import daemon.AnalyzerDaemon;
+import daemon.DaemonClient;
+import pipeline.AnalysisPipeline;
 //import model.TextStats;
 //import model.WordCount;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*; // Scanner etc.
 
 
 public class TextApp {
     public static void main(String[] args) {
+        // Tryb demona / klienta:
+        //   --daemon [gniazdo] [--lemmas słownik|stem] – uruchamia rozgrzany analizator nasłuchujący na gnieździe Unix
+        //   --client [--socket gniazdo] polecenie      – wysyła polecenie do demona (patrz daemon.CommandRunner)
+        if (args.length > 0 && args[0].equals("--daemon")) {
+            System.exit(runDaemon(Arrays.asList(args).subList(1, args.length)));
+        }
+        if (args.length > 0 && args[0].equals("--client")) {
+            System.exit(runClient(Arrays.asList(args).subList(1, args.length)));
+        }
+
         Scanner sc = new Scanner(System.in);
 
         // Pobierz bazową nazwę pliku i zbuduj ścieżkę
@@ -19,14 +38,85 @@ public class TextApp {
         String baseName = sc.nextLine().trim();
         String path = baseName + ".txt";
 
-        // Konfiguracja analizatora
+        // Opcjonalna lematyzacja (domu/domem -> dom)
+        System.out.print("Słownik lematów (ENTER = bez lematyzacji, 'stem' = tylko stemmer regułowy): ");
+        Lemmas lemmas = withLemmatizer(new WhitespaceTokenizer(), sc.nextLine().trim());
+        Tokenizer tokenizer = lemmas.tokenizer();
+
+        // Konfiguracja analizatora (i potoku z tymi samymi strategiami)
+        Normalizer normalizer = new DefaultNormalizer();
+        SentenceTokenizer sentenceTokenizer = new DefaultSentenceTokenizer();
+        TextAnalyzer analyzer = new TextAnalyzer(normalizer, tokenizer, sentenceTokenizer);
+        AnalysisPipeline pipeline = new AnalysisPipeline(normalizer, tokenizer, sentenceTokenizer);
+
+        // Uruchom interaktywne menu
+        new TextMenu(analyzer, pipeline, path, lemmas.setting(), sc).run();
+    }
+
+    private static int runDaemon(List<String> args) {
+        Path socket = AnalyzerDaemon.defaultSocket();
+        String lemmas = "";
+        for (int i = 0; i < args.size(); i++) {
+            String a = args.get(i);
+            if (a.equals("--lemmas") && i + 1 < args.size()) {
+                lemmas = args.get(++i);
+            } else if (!a.startsWith("--")) {
+                socket = Path.of(a);
+            } else {
+                System.err.println("Nieznana opcja: " + a + " (użycie: --daemon [gniazdo] [--lemmas słownik|stem])");
+                return 2;
+            }
+        }
+
+        // Ta sama konfiguracja co w trybie interaktywnym, łącznie z lematyzacją
         TextAnalyzer analyzer = new TextAnalyzer(
                 new DefaultNormalizer(),
-                new WhitespaceTokenizer(),
+                withLemmatizer(new WhitespaceTokenizer(), lemmas).tokenizer(),
                 new DefaultSentenceTokenizer()
         );
+        try (AnalyzerDaemon daemon = new AnalyzerDaemon(analyzer, socket)) {
+            System.err.println("Demon nasłuchuje na " + socket);
+            daemon.serve();
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Błąd demona: " + e.getMessage());
+            return 1;
+        }
+    }
 
-        // Uruchom interaktywne menu
-        new TextMenu(analyzer, path, sc).run();
+    private static int runClient(List<String> args) {
+        Path socket = AnalyzerDaemon.defaultSocket();
+        if (args.size() >= 2 && args.get(0).equals("--socket")) {
+            socket = Path.of(args.get(1));
+            args = args.subList(2, args.size());
+        }
+        try {
+            return DaemonClient.run(socket, args, System.out, System.err);
+        } catch (IOException e) {
+            System.err.println("Brak połączenia z demonem (" + socket + "): " + e.getMessage());
+            return 3;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Błąd: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    // Rozmiar cache najczęstszych słów przed lematyzatorem
+    private static final int LEMMA_CACHE_SIZE = 65_536;
+
+    /** Skuteczne ustawienie lematyzacji ("", "stem" albo bezwzględna ścieżka słownika) i tokenizer wg niego. */
+    private record Lemmas(String setting, Tokenizer tokenizer) { }
+
+    private static Lemmas withLemmatizer(Tokenizer tokenizer, String dictionary) {
+        try {
+            // Ścieżka bezwzględna – ten sam słownik wczytują robotnicy map-reduce
+            String setting = dictionary.isEmpty() || dictionary.equalsIgnoreCase("stem")
+                    ? dictionary
+                    : Path.of(dictionary).toAbsolutePath().toString();
+            return new Lemmas(setting, LemmatizingTokenizer.forSetting(tokenizer, setting, LEMMA_CACHE_SIZE));
+        } catch (Exception e) {
+            System.err.println("Nie udało się wczytać słownika (" + e.getMessage() + "), używam stemmera regułowego.");
+            return withLemmatizer(tokenizer, "stem");
+        }
     }
 }
\ No newline at end of file
@@ -4,8 +4,32 @@ import util.ReportWriter;
 import util.ReportWriter.Format;
 
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.*; // ExecutorService, Executors, Future, TimeUnit, ...
+import core.AnalysisControl;
+import core.CancellationToken;
+import core.CorpusComparator;
+import core.NearDuplicateDetector;
+import core.StopWords;
 import core.TextAnalyzer;
+import io.ExternalWordSorter;
+import io.SortedWordStream;
+import mapreduce.LocalCoordinator;
+import metrics.MetricCollectors;
+import pipeline.AnalysisPipeline;
+import model.AnalysisResult;
+import model.CorpusComparison;
+import model.DeduplicationResult;
+import model.DuplicateCluster;
+import model.KeywordScore;
+import model.MapReduceResult;
+import model.MetricResult;
+import model.MetricsReport;
+import model.PipelineResult;
+import model.Progress;
+import model.StageMetrics;
 import model.TextStats;
+import model.WindowSnapshot;
 import model.WordCount;
 import model.WordSort;
 
@@ -17,21 +41,31 @@ import java.util.*; // scanner,
  */
 public class TextMenu {
     private final TextAnalyzer analyzer;
+    private final AnalysisPipeline pipeline;
     private final String path;
+    private final String lemmas; // ustawienie lematyzacji analyzer – przekazywane robotnikom map-reduce
     private final Scanner sc;
+    private final ExternalWordSorter sorter = new ExternalWordSorter(); // zapis częstotliwości (opcja 8)
 
     // Domyślnie włączona prosta lista polskich stop-words
-    private final Set<String> stopWords = new HashSet<>(Arrays.asList(
-            "i","oraz","że","to","w","na","z","do","się","jest","nie","a","o","po","u","ten","ta","to",
-            "jak","który","która","które","te","dla","przy","albo","lub","czy","tam","tu","nad","pod",
-            "od","bez","więc","co","tak","tylko","mnie","ciebie","jego","jej","ich"
-    ));
+    private final Set<String> stopWords = StopWords.polish();
 
     private int minWordLength = 2; // ignoruj bardzo krótkie „słowa”
+    private int timeLimitSeconds = 0; // 0 = bez limitu czasu analizy
 
-    public TextMenu(TextAnalyzer analyzer, String path, Scanner sc) {
+    // Jak często odświeżać linię postępu
+    private static final long PROGRESS_REFRESH_NANOS = 200_000_000L;
+    private long lastProgressNanos;
+
+    // Ile wartości jednej metryki pokazać na ekranie (pełna lista trafia do raportu)
+    private static final int METRIC_VALUES_SHOWN = 25;
+
+    /** @param lemmas ustawienie lematyzacji, z którym zbudowano tokenizer analyzer ("", "stem" albo ścieżka słownika) */
+    public TextMenu(TextAnalyzer analyzer, AnalysisPipeline pipeline, String path, String lemmas, Scanner sc) {
         this.analyzer = Objects.requireNonNull(analyzer, "analyzer must not be null");
+        this.pipeline = Objects.requireNonNull(pipeline, "pipeline must not be null");
         this.path = Objects.requireNonNull(path, "path must not be null");
+        this.lemmas = Objects.requireNonNull(lemmas, "lemmas must not be null");
         this.sc = Objects.requireNonNull(sc, "scanner must not be null");
     }
 
@@ -50,6 +84,12 @@ public class TextMenu {
                 case "6" -> saveBasicStats();       // NEW
                 case "7" -> saveFullStats();        // NEW
                 case "8" -> saveWordFrequency();    // NEW
+                case "9" -> compareWithOtherFile();
+                case "10" -> showSlidingWindowTop();
+                case "11" -> changeTimeLimit();
+                case "12" -> runMultiProcess();
+                case "13" -> showMetrics();
+                case "14" -> findDuplicates();
                 case "0" -> { System.out.println("Koniec. Do zobaczenia!"); return; }
                 default -> System.out.println("Nieznana opcja. Spróbuj ponownie.");
             }
@@ -60,7 +100,8 @@ public class TextMenu {
 
     private void showBasicStats() {
         try {
-            TextStats stats = analyzer.analyzeFile(path);
+            AnalysisResult<TextStats> result = runWithProgress(c -> analyzer.analyzeFile(path, c));
+            TextStats stats = result.value();
             System.out.println("=== STATYSTYKI ===");
             System.out.println("Słowa: " + stats.words());
             System.out.println("Znaki (ze spacjami): " + stats.charsWithSpaces());
@@ -77,13 +118,13 @@ public class TextMenu {
         WordSort sortMode = askSortMode(); // NOWE
 
         try {
-            List<WordCount> top = analyzer.topWordsFromFile(
+            AnalysisResult<Map<String, Integer>> result = runWithProgress(c -> analyzer.wordFrequencyFromFile(
                     path,
-                    topN,
                     stopWordsEnabled() ? stopWords : null,
                     minWordLength,
-                    sortMode // new
-            );
+                    c
+            ));
+            List<WordCount> top = analyzer.topWordsFromFrequency(result.value(), topN, sortMode);
             System.out.println("=== TOP " + topN + " słów — sortowanie: " + sortMode + " ===");
             for (WordCount wc : top) {
                 System.out.printf("%-20s : %d%n", wc.word(), wc.count());
@@ -95,11 +136,12 @@ public class TextMenu {
 
     private void showFrequencyFragment() {
         try {
-            Map<String, Integer> freq = analyzer.wordFrequencyFromFile(
+            Map<String, Integer> freq = runWithProgress(c -> analyzer.wordFrequencyFromFile(
                     path,
                     stopWordsEnabled() ? stopWords : null,
-                    minWordLength
-            );
+                    minWordLength,
+                    c
+            )).value();
             // Posortuj: malejąco po liczbie wystąpień, przy remisie alfabetycznie
             List<Map.Entry<String,Integer>> sorted = new ArrayList<>(freq.entrySet());
             sorted.sort(Map.Entry.<String,Integer>comparingByValue().reversed()
@@ -126,26 +168,30 @@ public class TextMenu {
         System.out.println("Ustawiono minWordLength = " + minWordLength);
     }
 
+    private void changeTimeLimit() {
+        System.out.print("Limit czasu analizy w sekundach (0 = bez limitu): ");
+        String in = sc.nextLine().trim();
+        timeLimitSeconds = "0".equals(in) ? 0 : parsePositiveInt(in, timeLimitSeconds);
+        System.out.println("Limit czasu: " + describeTimeLimit());
+    }
+
     private void toggleStopWords() {
         if (stopWordsEnabled()) {
             stopWords.clear();
             System.out.println("Stop‑words: WYŁĄCZONE");
         } else {
-            stopWords.addAll(Arrays.asList(
-                    "i","oraz","że","to","w","na","z","do","się","jest","nie","a","o","po","u","ten","ta","to",
-                    "jak","który","która","które","te","dla","przy","albo","lub","czy","tam","tu","nad","pod",
-                    "od","bez","więc","co","tak","tylko","mnie","ciebie","jego","jej","ich"
-            ));
+            stopWords.addAll(StopWords.polish());
             System.out.println("Stop‑words: WŁĄCZONE");
         }
     }
 
     private void saveBasicStats() {
         try {
-            TextStats stats = analyzer.analyzeFile(path);
+            AnalysisResult<TextStats> stats = runWithProgress(c -> analyzer.analyzeFile(path, c));
+            if (!savable(stats)) return;
             Format format = askFormat();
             Path out = askOutputPath(defaultName("basic_stats", format));
-            ReportWriter.writeBasicStats(stats, out, format);
+            ReportWriter.writeBasicStats(stats.value(), out, format);
             System.out.println("Zapisano: " + out.toAbsolutePath());
         } catch (Exception e) {
             System.err.println("Błąd zapisu: " + e.getMessage());
@@ -154,13 +200,15 @@ public class TextMenu {
 
     private void saveFullStats() {
         try {
-            TextStats stats = analyzer.analyzeFile(path);
-            Map<String,Integer> freq = analyzer.wordFrequencyFromFile(
-                    path, stopWordsEnabled() ? stopWords : null, minWordLength
-            );
+            // Statystyki i częstotliwości w jednym przebiegu potoku (odczyt, tokenizacja i zliczanie równolegle)
+            AnalysisResult<PipelineResult> result = runWithProgress(c -> pipeline.run(
+                    path, stopWordsEnabled() ? stopWords : null, minWordLength, c
+            ));
+            if (!savable(result)) return;
+            printStageMetrics(result.value().metrics());
             Format format = askFormat();
             Path out = askOutputPath(defaultName("full_stats", format));
-            ReportWriter.writeFullStats(stats, freq, out, format);
+            ReportWriter.writeFullStats(result.value().stats(), result.value().frequency(), out, format);
             System.out.println("Zapisano: " + out.toAbsolutePath());
         } catch (Exception e) {
             System.err.println("Błąd zapisu: " + e.getMessage());
@@ -169,20 +217,289 @@ public class TextMenu {
 
     private void saveWordFrequency() {
         try {
-            Map<String,Integer> freq = analyzer.wordFrequencyFromFile(
+            // Słownik większy niż budżet sortera schodzi na dysk, a raport jest pisany strumieniowo
+            AnalysisResult<SortedWordStream> freq = runWithProgress(c -> analyzer.wordFrequencySortedExternalFromFile(
+                    path, stopWordsEnabled() ? stopWords : null, minWordLength, WordSort.FREQUENCY_DESC, sorter, c
+            ));
+            try (SortedWordStream sorted = freq.value()) {
+                if (!savable(freq)) return;
+                Format format = askFormat();
+                Path out = askOutputPath(defaultName("word_frequency", format));
+                ReportWriter.writeSortedWordFrequency(sorted, out, format);
+                System.out.println("Zapisano: " + out.toAbsolutePath());
+            }
+        } catch (Exception e) {
+            System.err.println("Błąd zapisu: " + e.getMessage());
+        }
+    }
+
+    private void compareWithOtherFile() {
+        System.out.print("Podaj bazową nazwę pliku do porównania (bez .txt): ");
+        String otherPath = sc.nextLine().trim() + ".txt";
+        System.out.print("Podaj K (ile słów charakterystycznych dla każdej strony): ");
+        int topK = parsePositiveInt(sc.nextLine(), 20);
+
+        try {
+            CorpusComparison cmp = runWithProgress(c -> new CorpusComparator(analyzer).compareFiles(
+                    path, otherPath, stopWordsEnabled() ? stopWords : null, minWordLength, topK, c
+            )).value();
+            System.out.println("=== " + path + " (A) vs " + otherPath + " (B) ===");
+            System.out.println("Słowa A: " + cmp.totalA() + ", słowa B: " + cmp.totalB()
+                    + ", wspólne: " + cmp.sharedWords());
+            printKeywords("Charakterystyczne dla A", cmp.topA());
+            printKeywords("Charakterystyczne dla B", cmp.topB());
+
+            System.out.print("Zapisać raport? (t/n): ");
+            if (sc.nextLine().trim().toLowerCase(Locale.ROOT).startsWith("t")) {
+                Format format = askFormat();
+                Path out = askOutputPath(defaultName("comparison", format));
+                ReportWriter.writeComparison(cmp, out, format);
+                System.out.println("Zapisano: " + out.toAbsolutePath());
+            }
+        } catch (Exception e) {
+            System.err.println("Błąd porównania: " + e.getMessage());
+        }
+    }
+
+    private void showSlidingWindowTop() {
+        System.out.print("Podaj N (ile najczęstszych słów w oknie): ");
+        int topN = parsePositiveInt(sc.nextLine(), 20);
+        System.out.print("Rozmiar okna w tokenach (ENTER = 10000): ");
+        int windowSize = parsePositiveInt(sc.nextLine(), 10_000);
+        System.out.print("Krok przesunięcia w tokenach (ENTER = 1000): ");
+        int step = parsePositiveInt(sc.nextLine(), 1_000);
+
+        try {
+            List<WindowSnapshot> windows = runWithProgress(c -> analyzer.slidingTopWordsFromFile(
+                    path, windowSize, step, topN, stopWordsEnabled() ? stopWords : null, minWordLength, c
+            )).value();
+            System.out.println("=== TOP " + topN + " w oknie " + windowSize + " / krok " + step
+                    + " (okien: " + windows.size() + ") ===");
+            for (WindowSnapshot w : windows) {
+                StringBuilder line = new StringBuilder();
+                for (WordCount wc : w.top()) {
+                    if (line.length() > 0) line.append(", ");
+                    line.append(wc.word()).append('(').append(wc.count()).append(')');
+                }
+                System.out.printf("#%d [%d-%d): %s%n", w.index(), w.startToken(), w.endToken(), line);
+            }
+
+            System.out.print("Zapisać serię? (t/n): ");
+            if (sc.nextLine().trim().toLowerCase(Locale.ROOT).startsWith("t")) {
+                Format format = askFormat();
+                Path out = askOutputPath(defaultName("sliding_top", format));
+                ReportWriter.writeSlidingWindow(windows, out, format);
+                System.out.println("Zapisano: " + out.toAbsolutePath());
+            }
+        } catch (Exception e) {
+            System.err.println("Błąd odczytu pliku: " + e.getMessage());
+        }
+    }
+
+    private void runMultiProcess() {
+        int defaultWorkers = Runtime.getRuntime().availableProcessors();
+        System.out.print("Liczba procesów (ENTER = " + defaultWorkers + "): ");
+        int workers = parsePositiveInt(sc.nextLine(), defaultWorkers);
+
+        try {
+            long t0 = System.nanoTime();
+            MapReduceResult result = new LocalCoordinator(workers, 2).lemmas(lemmas).run(
                     path, stopWordsEnabled() ? stopWords : null, minWordLength
             );
-            Format format = askFormat();
-            Path out = askOutputPath(defaultName("word_frequency", format));
-            ReportWriter.writeWordFrequency(freq, out, format);
-            System.out.println("Zapisano: " + out.toAbsolutePath());
+            long ms = (System.nanoTime() - t0) / 1_000_000;
+            TextStats stats = result.stats();
+            System.out.println("=== STATYSTYKI (" + result.shards() + " shardów, ponowień: "
+                    + result.retries() + ", " + ms + " ms) ===");
+            System.out.println("Słowa: " + stats.words());
+            System.out.println("Znaki (ze spacjami): " + stats.charsWithSpaces());
+            System.out.println("Znaki (bez spacji): " + stats.charsWithoutSpaces());
+            System.out.println("Zdania: " + stats.sentences());
+            System.out.println("Różne słowa: " + result.frequency().size());
         } catch (Exception e) {
-            System.err.println("Błąd zapisu: " + e.getMessage());
+            System.err.println("Błąd analizy wieloprocesowej: " + e.getMessage());
+        }
+    }
+
+    private void showMetrics() {
+        try {
+            MetricsReport report = runWithProgress(c -> analyzer.metricsFromFile(
+                    path, MetricCollectors.defaults(), c
+            )).value();
+            System.out.println("=== METRYKI (słowa: " + report.stats().words()
+                    + ", zdania: " + report.stats().sentences() + ") ===");
+            for (MetricResult m : report.metrics()) {
+                System.out.println("--- " + m.title() + " ---");
+                int shown = 0;
+                for (Map.Entry<String, Number> e : m.values().entrySet()) {
+                    if (shown++ == METRIC_VALUES_SHOWN) {
+                        System.out.println("... (razem pozycji: " + m.values().size() + ")");
+                        break;
+                    }
+                    Number v = e.getValue();
+                    System.out.printf(Locale.ROOT, "%-20s : %s%n", e.getKey(),
+                            v instanceof Double d ? String.format(Locale.ROOT, "%.4f", d) : v);
+                }
+            }
+
+            System.out.print("Zapisać raport metryk? (t/n): ");
+            if (sc.nextLine().trim().toLowerCase(Locale.ROOT).startsWith("t")) {
+                Format format = askFormat();
+                Path out = askOutputPath(defaultName("metrics", format));
+                ReportWriter.writeMetrics(report, out, format);
+                System.out.println("Zapisano: " + out.toAbsolutePath());
+            }
+        } catch (Exception e) {
+            System.err.println("Błąd odczytu pliku: " + e.getMessage());
+        }
+    }
+
+    private void findDuplicates() {
+        Path parent = Path.of(path).toAbsolutePath().getParent();
+        System.out.print("Katalog z dokumentami .txt (ENTER = " + parent + "): ");
+        String dirInput = sc.nextLine().trim();
+        Path dir = dirInput.isEmpty() ? parent : Path.of(dirInput);
+        System.out.print("Pominąć duplikaty w statystykach i częstotliwościach? (t/n): ");
+        boolean exclude = sc.nextLine().trim().toLowerCase(Locale.ROOT).startsWith("t");
+        System.out.print("Podaj N (ile najczęstszych słów kolekcji pokazać): ");
+        int topN = parsePositiveInt(sc.nextLine(), 20);
+
+        try {
+            List<String> files;
+            try (var listing = java.nio.file.Files.list(dir)) {
+                files = listing
+                        .filter(p -> p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".txt"))
+                        .filter(java.nio.file.Files::isRegularFile)
+                        .map(Path::toString)
+                        .sorted()
+                        .toList();
+            }
+            if (files.isEmpty()) {
+                System.out.println("Brak plików .txt w " + dir);
+                return;
+            }
+
+            DeduplicationResult result = runWithProgress(c -> new NearDuplicateDetector(analyzer).analyzeFiles(
+                    files, stopWordsEnabled() ? stopWords : null, minWordLength, exclude, c
+            )).value();
+            System.out.println("=== DUPLIKATY (" + result.documents() + " dokumentów, grup: "
+                    + result.clusters().size() + ") ===");
+            for (DuplicateCluster c : result.clusters()) {
+                System.out.println("* " + c.representative());
+                c.duplicates().forEach((doc, sim) ->
+                        System.out.printf(Locale.ROOT, "    %s (podobieństwo %.2f)%n", doc, sim));
+            }
+            if (exclude) {
+                System.out.println("Pominięto dokumentów: " + result.excludedDocuments());
+            }
+            System.out.println("Słowa: " + result.stats().words() + ", różne słowa: " + result.frequency().size());
+            System.out.println("--- TOP " + topN + " słów" + (exclude ? " (bez duplikatów)" : "") + " ---");
+            for (WordCount wc : analyzer.topWordsFromFrequency(result.frequency(), topN, WordSort.FREQUENCY_DESC)) {
+                System.out.printf("%-20s : %d%n", wc.word(), wc.count());
+            }
+
+            System.out.print("Zapisać raport duplikatów? (t/n): ");
+            if (sc.nextLine().trim().toLowerCase(Locale.ROOT).startsWith("t")) {
+                Format format = askFormat();
+                Path out = askOutputPath(defaultName("duplicates", format));
+                ReportWriter.writeDuplicates(result, out, format);
+                System.out.println("Zapisano: " + out.toAbsolutePath());
+            }
+        } catch (Exception e) {
+            System.err.println("Błąd odczytu plików: " + e.getMessage());
+        }
+    }
+
+    private void printStageMetrics(List<StageMetrics> metrics) {
+        System.out.println("--- Etapy potoku ---");
+        for (StageMetrics m : metrics) {
+            System.out.printf(Locale.ROOT, "%-10s : %,d elem., %.1f elem./s, zajętość %.0f%%%n",
+                    m.stage(), m.itemsIn(), m.itemsPerSecond(), 100 * m.busyFraction());
+        }
+    }
+
+    private void printKeywords(String title, List<KeywordScore> scores) {
+        System.out.println("--- " + title + " ---");
+        for (KeywordScore k : scores) {
+            System.out.printf(Locale.ROOT, "%-20s : A=%d B=%d LL=%.2f%n",
+                    k.word(), k.countA(), k.countB(), k.logLikelihood());
         }
     }
 
     // === Pomocnicze ===
 
+    /** Zadanie analizy sterowane przez AnalysisControl. */
+    @FunctionalInterface
+    private interface ControlledTask<T> {
+        AnalysisResult<T> run(AnalysisControl control) throws Exception;
+    }
+
+    /**
+     * Uruchamia analizę w osobnym wątku i pokazuje linię postępu.
+     * ENTER przerywa analizę (anulowanie kooperacyjne) – wtedy, podobnie jak po przekroczeniu
+     * limitu czasu, zwracany jest wynik częściowy z ostrzeżeniem.
+     */
+    private <T> AnalysisResult<T> runWithProgress(ControlledTask<T> task) throws Exception {
+        CancellationToken token = new CancellationToken();
+        AnalysisControl control = new AnalysisControl(this::printProgress, token,
+                AnalysisControl.deadlineIn(Duration.ofSeconds(timeLimitSeconds)));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "analysis");
+            t.setDaemon(true);
+            return t;
+        });
+        // Przerywanie ENTER-em tylko w terminalu – przy wejściu z potoku nie zjadamy kolejnych poleceń
+        boolean interactive = System.console() != null;
+        if (interactive) System.out.println("(ENTER = przerwij analizę)");
+        lastProgressNanos = 0;
+        try {
+            Future<AnalysisResult<T>> future = executor.submit(() -> task.run(control));
+            while (true) {
+                try {
+                    AnalysisResult<T> result = future.get(100, TimeUnit.MILLISECONDS);
+                    System.out.println();
+                    if (!result.complete()) {
+                        System.out.printf(Locale.ROOT, "Uwaga: wynik częściowy (%s) – przetworzono %.1f%% pliku.%n",
+                                result.status() == AnalysisResult.Status.CANCELLED ? "przerwano" : "przekroczono limit czasu",
+                                result.totalBytes() > 0 ? 100.0 * result.bytesProcessed() / result.totalBytes() : 100.0);
+                    }
+                    return result;
+                } catch (TimeoutException e) {
+                    if (interactive && System.in.available() > 0) {
+                        sc.nextLine();
+                        token.cancel();
+                    }
+                } catch (ExecutionException e) {
+                    System.out.println();
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Raporty zapisujemy tylko z pełnych wyników – częściowy plik wyglądałby jak kompletny
+    private boolean savable(AnalysisResult<?> result) {
+        if (!result.complete()) {
+            System.out.println("Nie zapisano raportu – analiza nie objęła całego pliku.");
+        }
+        return result.complete();
+    }
+
+    private void printProgress(Progress p) {
+        long now = System.nanoTime();
+        if (now - lastProgressNanos < PROGRESS_REFRESH_NANOS && p.bytesProcessed() < p.totalBytes()) return;
+        lastProgressNanos = now;
+        String eta = p.etaMillis() >= 0 ? (p.etaMillis() / 1000) + " s" : "?";
+        System.out.printf(Locale.ROOT, "\r%5.1f%%  %,d / %,d B  słowa: %,d  %.1f MB/s  ETA: %s   ",
+                p.percent(), p.bytesProcessed(), p.totalBytes(), p.tokensProcessed(), p.mbPerSecond(), eta);
+    }
+
+    private String describeTimeLimit() {
+        return timeLimitSeconds > 0 ? timeLimitSeconds + " s" : "brak";
+    }
+
     private int parsePositiveInt(String s, int fallback) {
         try {
             int v = Integer.parseInt(s.trim());
@@ -206,6 +523,12 @@ public class TextMenu {
         System.out.println("6) Zapisz podstawowe statystyki (CSV/TXT/JSON/XML)"); // new
         System.out.println("7) Zapisz pełne statystyki (CSV/TXT/JSON/XML)"); // new
         System.out.println("8) Zapisz częstotliwości słów (CSV/TXT/JSON/XML)"); // new
+        System.out.println("9) Porównaj z innym plikiem (słowa charakterystyczne)");
+        System.out.println("10) Top N w oknie przesuwnym (zmiany słownictwa w czasie)");
+        System.out.println("11) Ustaw limit czasu analizy (obecnie: " + describeTimeLimit() + ")");
+        System.out.println("12) Analiza wieloprocesowa (N procesów JVM)");
+        System.out.println("13) Metryki tekstu (długość słów, litery, TTR, hapaksy, zdania)");
+        System.out.println("14) Duplikaty w katalogu dokumentów (MinHash)");
         System.out.println("0) Wyjście");
         System.out.print("Wybór: ");
     }
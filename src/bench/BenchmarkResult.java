@@ -0,0 +1,18 @@
+package bench;
+
+/**
+ * Wynik jednego scenariusza benchmarku makro (mediana / maksimum z pomiarów).
+ *
+ * @param mbPerSecond   przepustowość (MB wejścia na sekundę, mediana z przebiegów)
+ * @param peakRssBytes  szczytowe RSS procesu (VmHWM), -1 gdy niedostępne
+ * @param peakHeapBytes szczytowe zajęcie sterty (suma szczytów pul pamięci)
+ * @param gcMillis      czas GC w jednym przebiegu (mediana)
+ */
+record BenchmarkResult(String scenario,
+                       long inputBytes,
+                       int runs,
+                       double mbPerSecond,
+                       long peakRssBytes,
+                       long peakHeapBytes,
+                       long gcMillis) {
+}
@@ -0,0 +1,250 @@
+package bench;
+
+import core.ConcurrentFrequencyAccumulator;
+import core.DefaultNormalizer;
+import core.DefaultSentenceTokenizer;
+import core.StopWords;
+import core.TextAnalyzer;
+import core.WhitespaceTokenizer;
+import io.ChunkedTextReader;
+
+import java.io.IOException;
+import java.nio.file.*; // Files, Path
+import java.util.*; // ArrayList, Arrays, HashMap, List, Locale, Map, Set
+import java.util.concurrent.*; // Semaphore, TimeUnit
+import java.util.concurrent.atomic.*; // AtomicInteger, AtomicReference
+
+/// ConcurrentFrequencyStress — test poprawności i przepustowości ConcurrentFrequencyAccumulator
+///
+/// Korpus (wygenerowany albo podany) dzielony jest na kawałki po ok. 64 KiB. Dla każdej liczby
+/// producentów (domyślnie 1, 2, 4, ..., 64) kawałki rozdzielane są między wątki, które wołają
+/// accept(); równolegle osobny wątek czyta totalWords() i sprawdza, że migawki nigdy się nie cofają.
+/// Na końcu migawka musi być identyczna z sekwencyjnym zliczeniem tych samych kawałków.
+///
+/// Użycie:
+///   java bench.ConcurrentFrequencyStress [--size 16M] [--seed 42] [--corpus plik]
+///                                        [--producers 1,2,4,8,16,32,64] [--rounds 3] [--churn]
+///
+/// --churn: każdy kawałek liczy nowy wątek wirtualny (najwyżej N naraz) – jak w demonie, gdzie
+/// wątki żyją krótko; sprawdza, że rotacja wątków nie psuje wyniku.
+/// Kod wyjścia 1 oznacza rozbieżność z liczeniem sekwencyjnym.
+
+public final class ConcurrentFrequencyStress {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_MISMATCH = 1;
+    static final int EXIT_USAGE = 2;
+
+    private static final int CHUNK_BYTES = 64 << 10;
+
+    private final TextAnalyzer analyzer = new TextAnalyzer(
+            new DefaultNormalizer(),
+            new WhitespaceTokenizer(),
+            new DefaultSentenceTokenizer()
+    );
+    private final Set<String> stopWords = StopWords.polish();
+
+    private ConcurrentFrequencyStress() {}
+
+    public static void main(String[] args) {
+        try {
+            System.exit(new ConcurrentFrequencyStress().execute(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Błąd: " + e.getMessage());
+            System.exit(EXIT_USAGE);
+        } catch (Exception e) {
+            System.err.println("Test przerwany: " + e);
+            System.exit(EXIT_USAGE);
+        }
+    }
+
+    private int execute(String[] args) throws Exception {
+        long size = 16L << 20;
+        long seed = 42;
+        int rounds = 3;
+        boolean churn = false;
+        Path corpus = null;
+        int[] producers = { 1, 2, 4, 8, 16, 32, 64 };
+
+        for (int i = 0; i < args.length; i++) {
+            String opt = args[i];
+            if (opt.equals("--churn")) {
+                churn = true;
+                continue;
+            }
+            if (i + 1 >= args.length) throw new IllegalArgumentException(opt + " requires a value");
+            String value = args[++i];
+            switch (opt) {
+                case "--size" -> size = CorpusGenerator.parseSize(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--corpus" -> corpus = Path.of(value);
+                case "--rounds" -> rounds = Math.max(1, Integer.parseInt(value));
+                case "--producers" -> producers = Arrays.stream(value.split(","))
+                        .mapToInt(s -> Integer.parseInt(s.trim()))
+                        .peek(n -> {
+                            if (n < 1) throw new IllegalArgumentException("producers must be >= 1");
+                        })
+                        .toArray();
+                default -> throw new IllegalArgumentException("unknown option: " + opt);
+            }
+        }
+
+        Path generated = null;
+        if (corpus == null) {
+            generated = Files.createTempFile("oldanalyze-stress", ".txt");
+            new CorpusGenerator(seed).generate(generated, size);
+            corpus = generated;
+        }
+        try {
+            return run(corpus, producers, rounds, churn);
+        } finally {
+            if (generated != null) Files.deleteIfExists(generated);
+        }
+    }
+
+    private int run(Path corpus, int[] producers, int rounds, boolean churn) throws Exception {
+        List<String> chunks = readChunks(corpus);
+        long bytes = Files.size(corpus);
+
+        // Wzorzec: te same kawałki liczone po kolei w jednym wątku
+        Map<String, Integer> expected = new HashMap<>();
+        long expectedWords = 0;
+        for (String chunk : chunks) {
+            for (Map.Entry<String, Integer> e : analyzer.wordFrequencyFromText(chunk, stopWords, 2).entrySet()) {
+                expected.merge(e.getKey(), e.getValue(), Integer::sum);
+                expectedWords += e.getValue();
+            }
+        }
+        System.out.printf(Locale.ROOT, "Korpus: %s (%.1f MB, %d kawałków, %,d słów po filtrach)%s%n",
+                corpus, bytes / 1_048_576.0, chunks.size(), expectedWords, churn ? ", tryb --churn" : "");
+        System.out.printf(Locale.ROOT, "%-10s %10s %14s %8s %10s%n", "producenci", "MB/s", "słowa/s", "pasy", "migawki");
+
+        int failures = 0;
+        for (int p : producers) {
+            double[] seconds = new double[rounds];
+            long snapshots = 0;
+            int stripes = 0;
+            for (int r = 0; r < rounds; r++) {
+                ConcurrentFrequencyAccumulator acc = new ConcurrentFrequencyAccumulator(analyzer, stopWords, 2);
+                stripes = acc.stripeCount();
+                Round round = churn ? churnRound(acc, chunks, p, expectedWords) : fixedRound(acc, chunks, p, expectedWords);
+                seconds[r] = round.seconds();
+                snapshots += round.snapshots();
+
+                String error = round.error();
+                if (error == null && acc.totalWords() != expectedWords) {
+                    error = "totalWords " + acc.totalWords() + " != " + expectedWords;
+                }
+                if (error == null && !acc.snapshot().equals(expected)) {
+                    error = "snapshot differs from the sequential count";
+                }
+                if (error != null) {
+                    System.out.println("BŁĄD (" + p + " producentów, runda " + (r + 1) + "): " + error);
+                    failures++;
+                }
+            }
+            Arrays.sort(seconds);
+            double median = seconds[rounds / 2];
+            System.out.printf(Locale.ROOT, "%-10d %10.2f %,14.0f %8d %10d%n",
+                    p, bytes / 1_000_000.0 / median, expectedWords / median, stripes, snapshots);
+        }
+
+        if (failures > 0) {
+            System.out.println("NIEZGODNOŚĆ: " + failures + " rund z błędnym wynikiem.");
+            return EXIT_MISMATCH;
+        }
+        System.out.println("OK – wszystkie migawki zgodne z liczeniem sekwencyjnym.");
+        return EXIT_OK;
+    }
+
+    /** Wynik jednej rundy: czas, liczba migawek czytelnika i ewentualny błąd (null = brak). */
+    private record Round(double seconds, long snapshots, String error) { }
+
+    // p stałych wątków pobiera kolejne kawałki ze wspólnego licznika
+    private Round fixedRound(ConcurrentFrequencyAccumulator acc, List<String> chunks, int p, long expectedWords)
+            throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>(p);
+        for (int i = 0; i < p; i++) {
+            threads.add(Thread.ofPlatform().name("producer-" + i).unstarted(() -> {
+                int c;
+                while ((c = next.getAndIncrement()) < chunks.size()) {
+                    acc.accept(chunks.get(c));
+                }
+            }));
+        }
+        return timed(acc, expectedWords, () -> {
+            for (Thread t : threads) t.start();
+            for (Thread t : threads) t.join();
+        });
+    }
+
+    // Nowy wątek wirtualny na każdy kawałek, najwyżej p naraz
+    private Round churnRound(ConcurrentFrequencyAccumulator acc, List<String> chunks, int p, long expectedWords)
+            throws InterruptedException {
+        return timed(acc, expectedWords, () -> {
+            Semaphore permits = new Semaphore(p);
+            List<Thread> threads = new ArrayList<>(chunks.size());
+            for (String chunk : chunks) {
+                permits.acquire();
+                threads.add(Thread.ofVirtual().start(() -> {
+                    try {
+                        acc.accept(chunk);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Thread t : threads) t.join();
+        });
+    }
+
+    @FunctionalInterface
+    private interface Producers {
+        void run() throws InterruptedException;
+    }
+
+    // Mierzy czas producentów; w tle czytelnik sprawdza, że totalWords() rośnie monotonicznie
+    private static Round timed(ConcurrentFrequencyAccumulator acc, long expectedWords, Producers producers)
+            throws InterruptedException {
+        AtomicReference<String> error = new AtomicReference<>();
+        AtomicInteger snapshots = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread reader = Thread.ofPlatform().name("snapshot-reader").start(() -> {
+            long previous = 0;
+            try {
+                while (!done.await(1, TimeUnit.MILLISECONDS)) {
+                    long words = acc.totalWords();
+                    snapshots.incrementAndGet();
+                    if (words < previous || words > expectedWords) {
+                        error.compareAndSet(null, "snapshot went from " + previous + " to " + words + " words");
+                    }
+                    previous = words;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        long t0 = System.nanoTime();
+        try {
+            producers.run();
+        } finally {
+            done.countDown();
+            reader.join();
+        }
+        double seconds = Math.max(1e-9, (System.nanoTime() - t0) / 1e9);
+        return new Round(seconds, snapshots.get(), error.get());
+    }
+
+    private static List<String> readChunks(Path corpus) throws IOException {
+        List<String> chunks = new ArrayList<>();
+        try (ChunkedTextReader reader = new ChunkedTextReader(corpus.toString(), CHUNK_BYTES)) {
+            byte[] chunk;
+            while ((chunk = reader.nextChunk()) != null) {
+                chunks.add(ChunkedTextReader.decode(chunk));
+            }
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,274 @@
+package bench;
+
+import java.io.*; // BufferedWriter, IOException, OutputStreamWriter, Writer
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*; // AtomicMoveNotSupportedException, Files, Path, StandardCopyOption
+import java.util.*; // ArrayList, Arrays, Comparator, LinkedHashSet, List, Locale, Random, Set, UUID
+
+/// CorpusGenerator — deterministyczny generator "polskopodobnego" tekstu do testów w skali
+///
+/// Słownik składany jest z polskich sylab (z dwuznakami cz/sz/rz/ch/dz i literami ą ę ó ł ś ć ż ź ń),
+/// a słowa losowane są z rozkładu Zipfa: słowo o randze r ma wagę 1 / r^s. Krótkie słowa dostają
+/// najwyższe rangi, jak spójniki i przyimki w prawdziwym tekście. Ten sam seed i te same
+/// ustawienia dają bajt w bajt ten sam plik.
+///
+/// Tekst jest pisany strumieniowo (UTF-8), więc rozmiar ogranicza tylko dysk – także dziesiątki GB.
+///
+/// Użycie z linii poleceń:  java bench.CorpusGenerator <plik> <rozmiar, np. 512M / 10G> [seed]
+
+public class CorpusGenerator {
+
+    private static final String[] ONSETS = {
+            "", "", "b", "c", "ch", "cz", "d", "dz", "f", "g", "h", "j", "k", "l", "ł", "m", "n", "p",
+            "r", "rz", "s", "sz", "t", "w", "z", "ż", "ś", "ć", "pr", "kr", "st", "gr", "tr", "zw",
+            "sk", "pl", "br", "dw", "wz", "pi", "mi", "ni", "wi"
+    };
+    private static final String[] VOWELS = { "a", "a", "e", "e", "i", "o", "o", "u", "y", "y", "ą", "ę", "ó" };
+    private static final String[] INITIAL_VOWELS = { "a", "e", "i", "o", "u" };
+    private static final String[] CODAS = { "", "", "", "", "n", "m", "k", "ł", "ś", "ć", "ż", "ź", "ń", "r", "st", "ch", "j" };
+
+    // Zwiększ przy każdej zmianie sposobu generowania – unieważnia korpusy zapisane w cache
+    private static final int FORMAT_VERSION = 2;
+
+    private final long seed;
+    private int vocabularySize = 50_000;
+    private double zipfExponent = 1.07;
+    private double diacritics = 1.0;
+    private double commaRate = 0.08;
+    private int minSentence = 4;
+    private int maxSentence = 22;
+    private int sentencesPerParagraph = 8;
+
+    public CorpusGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /** Liczba różnych słów w słowniku. */
+    public CorpusGenerator vocabularySize(int size) {
+        if (size < 1) throw new IllegalArgumentException("vocabularySize must be >= 1");
+        this.vocabularySize = size;
+        return this;
+    }
+
+    /** Wykładnik rozkładu Zipfa (ok. 1.0 dla języka naturalnego; większy = uboższe słownictwo). */
+    public CorpusGenerator zipfExponent(double s) {
+        if (!(s > 0)) throw new IllegalArgumentException("zipfExponent must be > 0");
+        this.zipfExponent = s;
+        return this;
+    }
+
+    /** Odsetek słów zachowujących polskie znaki (0 = czyste ASCII, 1 = bez zmian). */
+    public CorpusGenerator diacritics(double fraction) {
+        if (fraction < 0 || fraction > 1) throw new IllegalArgumentException("diacritics must be in [0, 1]");
+        this.diacritics = fraction;
+        return this;
+    }
+
+    /** Prawdopodobieństwo przecinka po słowie wewnątrz zdania. */
+    public CorpusGenerator commaRate(double rate) {
+        if (rate < 0 || rate > 1) throw new IllegalArgumentException("commaRate must be in [0, 1]");
+        this.commaRate = rate;
+        return this;
+    }
+
+    /** Zakres długości zdania w słowach. */
+    public CorpusGenerator sentenceLength(int min, int max) {
+        if (min < 1 || max < min) throw new IllegalArgumentException("sentence length must satisfy 1 <= min <= max");
+        this.minSentence = min;
+        this.maxSentence = max;
+        return this;
+    }
+
+    /** Liczba zdań w akapicie (akapity rozdziela pusta linia). */
+    public CorpusGenerator sentencesPerParagraph(int n) {
+        if (n < 1) throw new IllegalArgumentException("sentencesPerParagraph must be >= 1");
+        this.sentencesPerParagraph = n;
+        return this;
+    }
+
+    /**
+     * Zapisuje korpus o rozmiarze co najmniej targetBytes (UTF-8); ostatnie zdanie jest domykane,
+     * więc plik bywa dłuższy o jedno zdanie.
+     *
+     * @return rzeczywista liczba zapisanych bajtów
+     */
+    public long generate(Path out, long targetBytes) throws IOException {
+        if (targetBytes < 0) throw new IllegalArgumentException("targetBytes must be >= 0");
+        Random random = new Random(seed);
+        String[] words = vocabulary(random);
+        int[] byteLengths = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            byteLengths[i] = words[i].getBytes(StandardCharsets.UTF_8).length;
+        }
+        double[] cdf = zipfCdf(words.length);
+
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        long written = 0;
+        int sentenceInParagraph = 0;
+        try (Writer w = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(out), StandardCharsets.UTF_8), 1 << 20)) {
+            while (written < targetBytes) {
+                int length = minSentence + random.nextInt(maxSentence - minSentence + 1);
+                for (int i = 0; i < length; i++) {
+                    int rank = sample(cdf, random.nextDouble());
+                    String word = words[rank];
+                    if (i == 0) {
+                        // Wielka litera na początku zdania (w UTF-8 ta sama liczba bajtów)
+                        w.write(Character.toUpperCase(word.charAt(0)));
+                        w.write(word, 1, word.length() - 1);
+                    } else {
+                        w.write(word);
+                    }
+                    written += byteLengths[rank];
+                    if (i < length - 1) {
+                        if (random.nextDouble() < commaRate) {
+                            w.write(',');
+                            written++;
+                        }
+                        w.write(' ');
+                        written++;
+                    }
+                }
+                double end = random.nextDouble();
+                w.write(end < 0.85 ? '.' : end < 0.93 ? '?' : '!');
+                written++;
+
+                if (++sentenceInParagraph == sentencesPerParagraph) {
+                    w.write("\n\n");
+                    written += 2;
+                    sentenceInParagraph = 0;
+                } else {
+                    w.write(' ');
+                    written++;
+                }
+            }
+        }
+        return written;
+    }
+
+    // ====== Implementacja ======
+
+    // Słownik posortowany po długości: najkrótsze słowa dostają najwyższe rangi Zipfa
+    private String[] vocabulary(Random random) {
+        Set<String> unique = new LinkedHashSet<>();
+        int attempts = 0;
+        while (unique.size() < vocabularySize) {
+            if (++attempts > vocabularySize * 50) {
+                throw new IllegalStateException("cannot build " + vocabularySize + " distinct words");
+            }
+            StringBuilder sb = new StringBuilder();
+            int syllables = 1 + random.nextInt(4);
+            for (int i = 0; i < syllables; i++) {
+                String onset = ONSETS[random.nextInt(ONSETS.length)];
+                String vowel = VOWELS[random.nextInt(VOWELS.length)];
+                // Polskie słowa nie zaczynają się od ą, ę, ó ani y
+                if (i == 0 && onset.isEmpty() && "ąęóy".contains(vowel)) {
+                    vowel = INITIAL_VOWELS[random.nextInt(INITIAL_VOWELS.length)];
+                }
+                sb.append(onset).append(vowel).append(CODAS[random.nextInt(CODAS.length)]);
+            }
+            String word = random.nextDouble() < diacritics ? sb.toString() : stripDiacritics(sb.toString());
+            unique.add(word);
+        }
+        List<String> sorted = new ArrayList<>(unique);
+        sorted.sort(Comparator.comparingInt(String::length)); // stabilne – kolejność z generatora
+        return sorted.toArray(new String[0]);
+    }
+
+    private double[] zipfCdf(int n) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, zipfExponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) cdf[i] /= sum;
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, double u) {
+        int i = Arrays.binarySearch(cdf, u);
+        return Math.min(cdf.length - 1, i >= 0 ? i : -i - 1);
+    }
+
+    private static String stripDiacritics(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            sb.append(switch (c) {
+                case 'ą' -> 'a';
+                case 'ć' -> 'c';
+                case 'ę' -> 'e';
+                case 'ł' -> 'l';
+                case 'ń' -> 'n';
+                case 'ó' -> 'o';
+                case 'ś' -> 's';
+                case 'ź', 'ż' -> 'z';
+                default -> c;
+            });
+        }
+        return sb.toString();
+    }
+
+    /** Klucz ustawień: seed, wszystkie parametry i wersja algorytmu – ten sam klucz daje ten sam plik. */
+    public String settingsKey() {
+        String settings = String.join("|", "v" + FORMAT_VERSION, Long.toString(seed),
+                Integer.toString(vocabularySize), Double.toString(zipfExponent), Double.toString(diacritics),
+                Double.toString(commaRate), minSentence + "-" + maxSentence, Integer.toString(sentencesPerParagraph));
+        String hash = UUID.nameUUIDFromBytes(settings.getBytes(StandardCharsets.UTF_8)).toString().replace("-", "");
+        return seed + "-" + hash.substring(0, 12);
+    }
+
+    /** Ścieżka korpusu o tych ustawieniach i rozmiarze w katalogu cache (plik nie musi istnieć). */
+    public Path cachePath(Path dir, long targetBytes) {
+        return dir.resolve("oldanalyze-corpus-" + settingsKey() + "-" + targetBytes + ".txt");
+    }
+
+    /**
+     * Korpus z cache: generowany tylko wtedy, gdy pod cachePath go brak. Generowanie idzie do pliku
+     * tymczasowego przenoszonego na miejsce jednym rename, więc przerwane generowanie nie zostawia
+     * uciętego pliku, który następne uruchomienie wzięłoby za gotowy.
+     */
+    public Path cached(Path dir, long targetBytes) throws IOException {
+        Path target = cachePath(dir, targetBytes);
+        if (Files.isRegularFile(target)) return target;
+
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "oldanalyze-corpus-", ".tmp");
+        try {
+            generate(tmp, targetBytes);
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return target;
+    }
+
+    /** Rozmiar w postaci 123, 64K, 512M, 10G. */
+    static long parseSize(String s) {
+        String t = s.trim().toUpperCase(Locale.ROOT);
+        long unit = 1;
+        if (t.endsWith("K")) unit = 1L << 10;
+        else if (t.endsWith("M")) unit = 1L << 20;
+        else if (t.endsWith("G")) unit = 1L << 30;
+        if (unit > 1) t = t.substring(0, t.length() - 1);
+        try {
+            return Long.parseLong(t) * unit;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid size: " + s);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Użycie: java bench.CorpusGenerator <plik> <rozmiar, np. 512M / 10G> [seed]");
+            System.exit(2);
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        long bytes = new CorpusGenerator(seed).generate(Path.of(args[0]), parseSize(args[1]));
+        System.out.println("Zapisano " + bytes + " B do " + args[0]);
+    }
+}
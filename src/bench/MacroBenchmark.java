@@ -0,0 +1,400 @@
+package bench;
+
+import core.AnalysisControl;
+import core.ConcurrentFrequencyAccumulator;
+import core.DefaultNormalizer;
+import core.DefaultSentenceTokenizer;
+import core.OffHeapFrequencyTable;
+import core.StopWords;
+import core.TextAnalyzer;
+import core.WhitespaceTokenizer;
+import io.ChunkedTextReader;
+import metrics.MetricCollectors;
+import model.MetricsReport;
+import model.TextStats;
+import model.WordCount;
+import model.WordSort;
+import util.ReportWriter;
+import util.ReportWriter.Format;
+
+import java.io.*; // IOException, Reader, Writer
+import java.lang.management.*; // GarbageCollectorMXBean, ManagementFactory, MemoryPoolMXBean, MemoryType
+import java.nio.file.*; // Files, Path
+import java.util.*; // ArrayList, Arrays, Comparator, LinkedHashMap, List, Locale, Map, Properties, Set
+import java.util.concurrent.*; // ArrayBlockingQueue, ThreadPoolExecutor, TimeUnit
+
+/// MacroBenchmark — pełny przepływ TextAnalyzer → ReportWriter na wygenerowanym korpusie
+///
+/// Dla każdego scenariusza: przebiegi rozgrzewkowe, potem pomiary – przepustowość (MB/s, mediana),
+/// szczytowe RSS procesu (VmHWM z /proc/self/status, zerowane przez /proc/self/clear_refs),
+/// szczyt sterty (pule MemoryPoolMXBean) i czas GC. Wyniki porównywane są z zapisanymi
+/// wartościami bazowymi; spadek poniżej tolerancji kończy program kodem 1.
+///
+/// Użycie:
+///   java bench.MacroBenchmark [--size 64M] [--seed 42] [--runs 3] [--warmup 1]
+///                             [--scenario stats,full_report,heap_freq,offheap_freq,...] [--corpus plik]
+///                             [--baselines bench-baselines.properties] [--tolerance 0.2] [--record]
+///
+/// --record zapisuje bieżące wyniki jako nowe wartości bazowe (po zmianie maszyny albo świadomej
+/// zmianie wydajności). Wartości bazowe są specyficzne dla maszyny i rozmiaru korpusu.
+/// Warto uruchamiać z ustalonym -Xmx, żeby szczyt sterty był porównywalny między przebiegami.
+
+public final class MacroBenchmark {
+
+    /** Jeden scenariusz: pełne przetworzenie korpusu i zapis raportu do outDir. */
+    @FunctionalInterface
+    private interface Scenario {
+        void run(Path corpus, Path outDir) throws Exception;
+    }
+
+    /** Pojedynczy pomiar. */
+    private record Sample(double seconds, long peakRssBytes, long peakHeapBytes, long gcMillis) { }
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_REGRESSION = 1;
+    static final int EXIT_USAGE = 2;
+
+    // Czas GC jest zaszumiony – do tolerancji względnej dochodzi stały margines
+    private static final long GC_SLACK_MILLIS = 50;
+
+    private final TextAnalyzer analyzer = new TextAnalyzer(
+            new DefaultNormalizer(),
+            new WhitespaceTokenizer(),
+            new DefaultSentenceTokenizer()
+    );
+    private final Set<String> stopWords = StopWords.polish();
+    private final Map<String, Scenario> scenarios = new LinkedHashMap<>();
+
+    private boolean rssResettable = true;
+
+    private MacroBenchmark() {
+        scenarios.put("stats", (corpus, out) -> {
+            TextStats stats = analyzer.analyzeFile(corpus.toString(), AnalysisControl.none()).value();
+            ReportWriter.writeBasicStats(stats, out.resolve("stats.json"), Format.JSON);
+        });
+        scenarios.put("full_report", (corpus, out) -> {
+            TextStats stats = analyzer.analyzeFile(corpus.toString(), AnalysisControl.none()).value();
+            Map<String, Integer> freq = analyzer.wordFrequencyFromFile(
+                    corpus.toString(), stopWords, 2, AnalysisControl.none()).value();
+            ReportWriter.writeFullStats(stats, freq, out.resolve("full.json"), Format.JSON);
+        });
+        scenarios.put("metrics", (corpus, out) -> {
+            MetricsReport report = analyzer.metricsFromFile(
+                    corpus.toString(), MetricCollectors.defaults(), AnalysisControl.none()).value();
+            ReportWriter.writeMetrics(report, out.resolve("metrics.json"), Format.JSON);
+        });
+        scenarios.put("concurrent_freq", this::concurrentFrequency);
+        // Para do porównania sterty i czasu GC: te same częstotliwości w HashMap i poza stertą.
+        // Obie strony sortują tym samym komparatorem i piszą tym samym writerem – różni je tylko tablica.
+        scenarios.put("heap_freq", (corpus, out) -> {
+            Map<String, Integer> freq = analyzer.wordFrequencyFromFile(
+                    corpus.toString(), stopWords, 2, AnalysisControl.none()).value();
+            List<WordCount> sorted = new ArrayList<>(freq.size());
+            freq.forEach((w, c) -> sorted.add(new WordCount(w, c)));
+            sorted.sort(WordSort.FREQUENCY_DESC.comparator());
+            ReportWriter.writeSortedWordFrequency(sorted, out.resolve("heap_freq.csv"), Format.CSV);
+        });
+        scenarios.put("offheap_freq", (corpus, out) -> {
+            try (OffHeapFrequencyTable freq = analyzer.wordFrequencyOffHeapFromFile(corpus.toString(), stopWords, 2)) {
+                ReportWriter.writeSortedWordFrequency(freq.sorted(WordSort.FREQUENCY_DESC),
+                        out.resolve("offheap_freq.csv"), Format.CSV);
+            }
+        });
+    }
+
+    // Kawałki pliku liczone przez pulę wątków do wspólnego ConcurrentFrequencyAccumulator
+    private void concurrentFrequency(Path corpus, Path out) throws Exception {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        ConcurrentFrequencyAccumulator acc = new ConcurrentFrequencyAccumulator(analyzer, stopWords, 2);
+        // Ograniczona kolejka + CallerRunsPolicy: czytanie nie wyprzedza liczenia o więcej niż kilka kawałków
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads), new ThreadPoolExecutor.CallerRunsPolicy());
+        try (ChunkedTextReader reader = new ChunkedTextReader(corpus.toString())) {
+            byte[] chunk;
+            while ((chunk = reader.nextChunk()) != null) {
+                // To samo dekodowanie (UTF-8) co analizy plikowe w pozostałych scenariuszach
+                String text = ChunkedTextReader.decode(chunk);
+                pool.execute(() -> acc.accept(text));
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.HOURS);
+        }
+        ReportWriter.writeWordFrequency(acc.snapshot(), out.resolve("freq.csv"), Format.CSV);
+    }
+
+    // ====== Pomiar ======
+
+    private BenchmarkResult run(String name, Path corpus, Path outDir, int warmup, int runs) throws Exception {
+        Scenario scenario = scenarios.get(name);
+        for (int i = 0; i < warmup; i++) {
+            scenario.run(corpus, outDir);
+        }
+        List<Sample> samples = new ArrayList<>(runs);
+        for (int i = 0; i < runs; i++) {
+            samples.add(measure(scenario, corpus, outDir));
+        }
+
+        long bytes = Files.size(corpus);
+        double[] mbps = samples.stream().mapToDouble(s -> bytes / 1_000_000.0 / s.seconds()).toArray();
+        long[] gc = samples.stream().mapToLong(Sample::gcMillis).toArray();
+        return new BenchmarkResult(name, bytes, runs,
+                median(mbps),
+                samples.stream().mapToLong(Sample::peakRssBytes).max().orElse(-1),
+                samples.stream().mapToLong(Sample::peakHeapBytes).max().orElse(0),
+                Math.round(median(Arrays.stream(gc).asDoubleStream().toArray())));
+    }
+
+    private Sample measure(Scenario scenario, Path corpus, Path outDir) throws Exception {
+        System.gc();
+        resetPeakRss();
+        List<MemoryPoolMXBean> heapPools = heapPools();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long gc0 = gcMillis();
+        long t0 = System.nanoTime();
+
+        scenario.run(corpus, outDir);
+
+        double seconds = Math.max(1e-9, (System.nanoTime() - t0) / 1e9);
+        long gc = gcMillis() - gc0;
+        long heap = 0;
+        for (MemoryPoolMXBean p : heapPools) heap += p.getPeakUsage().getUsed();
+        return new Sample(seconds, peakRss(), heap, gc);
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (p.getType() == MemoryType.HEAP && p.isValid()) pools.add(p);
+        }
+        return pools;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    // "5" w clear_refs zeruje VmHWM (Linux >= 4.0); bez tego szczyt liczony jest od startu procesu
+    private void resetPeakRss() {
+        if (!rssResettable) return;
+        try {
+            Files.writeString(Path.of("/proc/self/clear_refs"), "5");
+        } catch (IOException | UnsupportedOperationException e) {
+            rssResettable = false;
+        }
+    }
+
+    private static long peakRss() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmHWM:")) {
+                    String kb = line.substring(6).trim().split("\\s+")[0];
+                    return Long.parseLong(kb) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // poza Linuksem – brak danych
+        }
+        return -1;
+    }
+
+    private static double median(double[] values) {
+        double[] v = values.clone();
+        Arrays.sort(v);
+        int n = v.length;
+        return n % 2 == 1 ? v[n / 2] : (v[n / 2 - 1] + v[n / 2]) / 2;
+    }
+
+    // ====== Wartości bazowe ======
+
+    private static Properties toBaselines(List<BenchmarkResult> results, long seed) {
+        Properties p = new Properties();
+        for (BenchmarkResult r : results) {
+            p.setProperty("corpus.bytes", String.valueOf(r.inputBytes()));
+            p.setProperty(r.scenario() + ".mbPerSecond", String.format(Locale.ROOT, "%.2f", r.mbPerSecond()));
+            p.setProperty(r.scenario() + ".peakRssBytes", String.valueOf(r.peakRssBytes()));
+            p.setProperty(r.scenario() + ".peakHeapBytes", String.valueOf(r.peakHeapBytes()));
+            p.setProperty(r.scenario() + ".gcMillis", String.valueOf(r.gcMillis()));
+        }
+        p.setProperty("corpus.seed", String.valueOf(seed));
+        return p;
+    }
+
+    /** Zwraca listę regresji (pustą, gdy wszystko w normie). */
+    private static List<String> compare(BenchmarkResult r, Properties base, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        String s = r.scenario();
+
+        Double mbps = number(base, s + ".mbPerSecond");
+        if (mbps != null && r.mbPerSecond() < mbps * (1 - tolerance)) {
+            regressions.add(String.format(Locale.ROOT, "%s: przepustowość %.2f MB/s < bazowej %.2f MB/s",
+                    s, r.mbPerSecond(), mbps));
+        }
+        Double rss = number(base, s + ".peakRssBytes");
+        if (rss != null && rss >= 0 && r.peakRssBytes() >= 0 && r.peakRssBytes() > rss * (1 + tolerance)) {
+            regressions.add(String.format(Locale.ROOT, "%s: szczyt RSS %s > bazowego %s",
+                    s, mb(r.peakRssBytes()), mb(rss.longValue())));
+        }
+        Double heap = number(base, s + ".peakHeapBytes");
+        if (heap != null && r.peakHeapBytes() > heap * (1 + tolerance)) {
+            regressions.add(String.format(Locale.ROOT, "%s: szczyt sterty %s > bazowego %s",
+                    s, mb(r.peakHeapBytes()), mb(heap.longValue())));
+        }
+        Double gc = number(base, s + ".gcMillis");
+        if (gc != null && r.gcMillis() > gc * (1 + tolerance) + GC_SLACK_MILLIS) {
+            regressions.add(String.format(Locale.ROOT, "%s: czas GC %d ms > bazowego %.0f ms",
+                    s, r.gcMillis(), gc));
+        }
+        return regressions;
+    }
+
+    private static Double number(Properties p, String key) {
+        String v = p.getProperty(key);
+        if (v == null) return null;
+        try {
+            return Double.parseDouble(v.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String mb(long bytes) {
+        return bytes < 0 ? "n/d" : String.format(Locale.ROOT, "%.1f MB", bytes / 1_048_576.0);
+    }
+
+    // ====== main ======
+
+    public static void main(String[] args) {
+        try {
+            System.exit(new MacroBenchmark().execute(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Błąd: " + e.getMessage());
+            System.exit(EXIT_USAGE);
+        } catch (Exception e) {
+            System.err.println("Benchmark przerwany: " + e);
+            System.exit(EXIT_USAGE);
+        }
+    }
+
+    private int execute(String[] args) throws Exception {
+        long size = 64L << 20;
+        long seed = 42;
+        int runs = 3;
+        int warmup = 1;
+        double tolerance = 0.20;
+        boolean record = false;
+        Path corpus = null;
+        Path baselines = Path.of("bench-baselines.properties");
+        List<String> selected = new ArrayList<>(scenarios.keySet());
+
+        for (int i = 0; i < args.length; i++) {
+            String opt = args[i];
+            if (opt.equals("--record")) {
+                record = true;
+                continue;
+            }
+            if (i + 1 >= args.length) throw new IllegalArgumentException(opt + " requires a value");
+            String value = args[++i];
+            switch (opt) {
+                case "--size" -> size = CorpusGenerator.parseSize(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--runs" -> runs = Math.max(1, Integer.parseInt(value));
+                case "--warmup" -> warmup = Math.max(0, Integer.parseInt(value));
+                case "--tolerance" -> tolerance = Double.parseDouble(value);
+                case "--corpus" -> corpus = Path.of(value);
+                case "--baselines" -> baselines = Path.of(value);
+                case "--scenario" -> {
+                    selected = Arrays.asList(value.split(","));
+                    for (String s : selected) {
+                        if (!scenarios.containsKey(s)) {
+                            throw new IllegalArgumentException("unknown scenario: " + s + " (known: " + scenarios.keySet() + ")");
+                        }
+                    }
+                }
+                default -> throw new IllegalArgumentException("unknown option: " + opt);
+            }
+        }
+
+        if (corpus == null) {
+            // Korpus deterministyczny – wygenerowany raz, potem używany ponownie
+            CorpusGenerator generator = new CorpusGenerator(seed);
+            Path cacheDir = Path.of(System.getProperty("java.io.tmpdir"));
+            if (!Files.isRegularFile(generator.cachePath(cacheDir, size))) {
+                System.out.println("Generowanie korpusu " + mb(size) + " (seed " + seed + ") -> "
+                        + generator.cachePath(cacheDir, size));
+            }
+            corpus = generator.cached(cacheDir, size);
+        }
+        System.out.println("Korpus: " + corpus + " (" + mb(Files.size(corpus)) + "), przebiegi: "
+                + warmup + " rozgrzewkowe + " + runs + " mierzone");
+
+        Path outDir = Files.createTempDirectory("oldanalyze-bench");
+        List<BenchmarkResult> results = new ArrayList<>();
+        try {
+            System.out.printf(Locale.ROOT, "%-16s %10s %12s %12s %8s%n", "scenariusz", "MB/s", "szczyt RSS", "szczyt sterty", "GC ms");
+            for (String name : selected) {
+                BenchmarkResult r = run(name, corpus, outDir, warmup, runs);
+                results.add(r);
+                System.out.printf(Locale.ROOT, "%-16s %10.2f %12s %12s %8d%n",
+                        r.scenario(), r.mbPerSecond(), mb(r.peakRssBytes()), mb(r.peakHeapBytes()), r.gcMillis());
+            }
+        } finally {
+            deleteTree(outDir);
+        }
+        if (!rssResettable) {
+            System.out.println("(uwaga: nie można wyzerować VmHWM – szczyt RSS liczony od startu procesu)");
+        }
+
+        if (record) {
+            Properties p = new Properties();
+            if (Files.exists(baselines)) {
+                try (Reader r = Files.newBufferedReader(baselines)) {
+                    p.load(r);
+                }
+            }
+            p.putAll(toBaselines(results, seed));
+            try (Writer w = Files.newBufferedWriter(baselines)) {
+                p.store(w, "OldAnalyze macro benchmark baselines");
+            }
+            System.out.println("Zapisano wartości bazowe: " + baselines.toAbsolutePath());
+            return EXIT_OK;
+        }
+
+        if (!Files.exists(baselines)) {
+            System.out.println("Brak pliku wartości bazowych (" + baselines + ") – uruchom z --record, aby go utworzyć.");
+            return EXIT_OK;
+        }
+        Properties base = new Properties();
+        try (Reader r = Files.newBufferedReader(baselines)) {
+            base.load(r);
+        }
+        Double baseBytes = number(base, "corpus.bytes");
+        if (baseBytes != null && baseBytes.longValue() != Files.size(corpus)) {
+            System.out.println("Uwaga: wartości bazowe zmierzono na korpusie innego rozmiaru (" + mb(baseBytes.longValue()) + ").");
+        }
+
+        List<String> regressions = new ArrayList<>();
+        for (BenchmarkResult r : results) {
+            regressions.addAll(compare(r, base, tolerance));
+        }
+        if (regressions.isEmpty()) {
+            System.out.printf(Locale.ROOT, "OK – wszystkie scenariusze w granicach tolerancji %.0f%%.%n", tolerance * 100);
+            return EXIT_OK;
+        }
+        System.out.println("REGRESJA:");
+        regressions.forEach(r -> System.out.println("  " + r));
+        return EXIT_REGRESSION;
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        try (var paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
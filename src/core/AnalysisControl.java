@@ -0,0 +1,49 @@
+package core;
+
+import model.Progress;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/// AnalysisControl — parametry sterujące długą analizą: listener postępu, token anulowania, opcjonalny termin
+///
+/// @param listener odbiorca postępu (ProgressListener.NONE, jeśli niepotrzebny)
+/// @param token    token anulowania
+/// @param deadline chwila, po której analiza kończy się z wynikiem częściowym (null = bez limitu)
+public record AnalysisControl(ProgressListener listener, CancellationToken token, Instant deadline) {
+
+    public AnalysisControl {
+        Objects.requireNonNull(listener, "listener must not be null");
+        Objects.requireNonNull(token, "token must not be null");
+    }
+
+    /** Bez raportowania, bez anulowania, bez limitu czasu. */
+    public static AnalysisControl none() {
+        return new AnalysisControl(ProgressListener.NONE, new CancellationToken(), null);
+    }
+
+    /** Termin liczony od teraz (timeout null lub zerowy = bez limitu). */
+    public static Instant deadlineIn(Duration timeout) {
+        return timeout == null || timeout.isZero() || timeout.isNegative() ? null : Instant.now().plus(timeout);
+    }
+
+    /**
+     * Kontrola dla części większego zadania (np. drugiego z porównywanych plików): postęp części
+     * przeliczany jest na całość – bajty i słowa przesunięte o to, co już zrobiono.
+     */
+    AnalysisControl part(long bytesBefore, long tokensBefore, long totalBytes) {
+        ProgressListener whole = p -> {
+            long done = bytesBefore + p.bytesProcessed();
+            double bytesPerMilli = p.mbPerSecond() * 1000.0;
+            long eta = bytesPerMilli > 0 ? (long) ((totalBytes - done) / bytesPerMilli) : -1;
+            listener.onProgress(new Progress(done, totalBytes, tokensBefore + p.tokensProcessed(), p.mbPerSecond(), eta));
+        };
+        return new AnalysisControl(whole, token, deadline);
+    }
+
+    /** true, jeśli termin minął. */
+    public boolean deadlinePassed() {
+        return deadline != null && Instant.now().isAfter(deadline);
+    }
+}
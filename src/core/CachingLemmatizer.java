@@ -0,0 +1,41 @@
+package core;
+
+import java.util.Objects;
+
+/// CachingLemmatizer — ograniczony cache najczęstszych słów przed właściwym lematyzatorem
+///
+/// Cache jest mapowany bezpośrednio (direct-mapped): słowo trafia do jednego slotu wg hasha,
+/// więc trafienie kosztuje jedno sondowanie tablicy i jedno equals. Słowa częste same się
+/// odświeżają w slotach, rzadkie są nadpisywane – bez list LRU i bez blokad.
+/// Wpisy są niemutowalne (pola final), więc wyścig między wątkami najwyżej powoduje chybienie.
+public class CachingLemmatizer implements Lemmatizer {
+
+    private record Entry(String word, String lemma) { }
+
+    private final Lemmatizer delegate;
+    private final Entry[] slots;
+    private final int mask;
+
+    /** @param capacity maksymalna liczba zapamiętanych słów (zaokrąglana w górę do potęgi dwójki) */
+    public CachingLemmatizer(Lemmatizer delegate, int capacity) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        // Najmniejsza potęga dwójki >= capacity (co najmniej 16, najwyżej 2^30)
+        int cap = Integer.highestOneBit(Math.min(Math.max(16, capacity), 1 << 30) - 1) << 1;
+        this.slots = new Entry[cap];
+        this.mask = cap - 1;
+    }
+
+    @Override
+    public String lemma(String word) {
+        int h = word.hashCode();
+        int i = (h ^ (h >>> 16)) & mask;
+        Entry e = slots[i];
+        if (e != null && e.word().equals(word)) {
+            return e.lemma();
+        }
+        String lemma = delegate.lemma(word);
+        slots[i] = new Entry(word, lemma);
+        return lemma;
+    }
+}
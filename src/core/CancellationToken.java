@@ -0,0 +1,17 @@
+package core;
+
+/// CancellationToken — kooperacyjne anulowanie analizy
+///
+/// cancel() można wywołać z dowolnego wątku; analiza sprawdza flagę tylko na granicach kawałków pliku,
+/// więc w pętli liczącej słowa nie ma żadnego dodatkowego kosztu.
+public class CancellationToken {
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,151 @@
+package core;
+
+import model.WordCount;
+import model.WordSort;
+
+import java.util.*; // ArrayList, HashMap, List, Map, Objects, Set
+import java.util.concurrent.locks.ReentrantLock;
+
+/// ConcurrentFrequencyAccumulator — wspólny licznik słów zasilany z wielu wątków naraz
+///
+/// Liczniki są podzielone na stałą liczbę pasów (stripes, potęga dwójki, domyślnie ok. 4 × liczba
+/// rdzeni); wątek trafia do pasa wg hasha swojego identyfikatora, więc producenci rzadko konkurują
+/// o tę samą blokadę. Liczba pasów nie zależy od liczby wątków – przy rotacji wątków (np. wątki
+/// wirtualne demona, nowy wątek na każde żądanie) pamięć nie rośnie. Tekst jest normalizowany
+/// i liczony przez TextAnalyzer poza jakąkolwiek blokadą; pod blokadą pasa dzieje się tylko
+/// scalenie gotowej paczki.
+///
+/// snapshot() zakłada blokady wszystkich pasów naraz (zawsze w tej samej kolejności), odbiera im
+/// zebrane mapy i zwalnia blokady, a dopiero potem scala je z mapą bazową – migawka jest spójna
+/// (każda paczka jest w niej w całości albo wcale), a scalanie odbywa się leniwie, dopiero gdy
+/// ktoś pyta o wynik.
+
+public class ConcurrentFrequencyAccumulator {
+
+    /** Pas liczników współdzielony przez wątki o tym samym hashu identyfikatora. */
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        Map<String, Integer> counts = new HashMap<>();
+        long words;
+    }
+
+    private final TextAnalyzer analyzer;
+    private final Set<String> stopWords;
+    private final int minWordLength;
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    // Stan już scalony przez snapshot() – dostęp tylko pod blokadą snapshotLock
+    private final Object snapshotLock = new Object();
+    private final Map<String, Integer> base = new HashMap<>();
+    private long baseWords;
+
+    /** Domyślna liczba pasów: najmniejsza potęga dwójki >= 4 × liczba rdzeni. */
+    public ConcurrentFrequencyAccumulator(TextAnalyzer analyzer, Set<String> stopWords, int minWordLength) {
+        this(analyzer, stopWords, minWordLength, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /** @param stripes liczba pasów (zaokrąglana w górę do potęgi dwójki, min. 1) */
+    public ConcurrentFrequencyAccumulator(TextAnalyzer analyzer, Set<String> stopWords, int minWordLength, int stripes) {
+        this.analyzer = Objects.requireNonNull(analyzer, "analyzer must not be null");
+        this.stopWords = stopWords == null ? null : Set.copyOf(stopWords);
+        this.minWordLength = minWordLength;
+        if (stripes < 1) throw new IllegalArgumentException("stripes must be >= 1");
+        // Najmniejsza potęga dwójki >= stripes (dla stripes = 1 highestOneBit(0) daje 0, stąd max)
+        int n = Math.max(1, Integer.highestOneBit(Math.min(stripes, 1 << 16) - 1) << 1);
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.mask = n - 1;
+    }
+
+    /** Dolicza tekst (bezpieczne z wielu wątków). */
+    public void accept(String text) {
+        addAll(analyzer.wordFrequencyFromText(text, stopWords, minWordLength));
+    }
+
+    /** Dolicza gotową paczkę częstotliwości (bezpieczne z wielu wątków). */
+    public void addAll(Map<String, Integer> batch) {
+        Stripe stripe = stripeOfCurrentThread();
+        long words = 0;
+        stripe.lock.lock();
+        try {
+            for (Map.Entry<String, Integer> e : batch.entrySet()) {
+                stripe.counts.merge(e.getKey(), e.getValue(), Integer::sum);
+                words += e.getValue();
+            }
+            stripe.words += words;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /** Spójna migawka częstotliwości (kopia – można ją swobodnie modyfikować i zapisywać ReportWriterem). */
+    public Map<String, Integer> snapshot() {
+        synchronized (snapshotLock) {
+            foldStripes();
+            return new HashMap<>(base);
+        }
+    }
+
+    /** Top N ze spójnej migawki. */
+    public List<WordCount> topWords(int topN, WordSort sortMode) {
+        return analyzer.topWordsFromFrequency(snapshot(), topN, sortMode);
+    }
+
+    /** Łączna liczba zliczonych słów (po filtrach) w spójnej migawce. */
+    public long totalWords() {
+        synchronized (snapshotLock) {
+            foldStripes();
+            return baseWords;
+        }
+    }
+
+    /** Liczba pasów (stała od utworzenia). */
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    // ====== Implementacja ======
+
+    private Stripe stripeOfCurrentThread() {
+        long id = Thread.currentThread().threadId();
+        // Identyfikatory wątków są kolejnymi liczbami – mieszanie rozrzuca je po pasach
+        long h = id * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h ^ (h >>> 32)) & mask];
+    }
+
+    // Wszystkie blokady naraz = jeden punkt w czasie. Pod blokadami tylko podmiana map (O(1) na pas),
+    // scalanie delt do bazy już po zwolnieniu – producenci czekają minimalnie.
+    private void foldStripes() {
+        List<Map<String, Integer>> deltas = new ArrayList<>(stripes.length);
+        long words = 0;
+        int locked = 0;
+        try {
+            for (Stripe s : stripes) {
+                s.lock.lock();
+                locked++;
+            }
+            for (Stripe s : stripes) {
+                if (s.counts.isEmpty()) continue;
+                deltas.add(s.counts);
+                words += s.words;
+                s.counts = new HashMap<>();
+                s.words = 0;
+            }
+        } finally {
+            for (int i = 0; i < locked; i++) {
+                stripes[i].lock.unlock();
+            }
+        }
+
+        for (Map<String, Integer> delta : deltas) {
+            for (Map.Entry<String, Integer> e : delta.entrySet()) {
+                base.merge(e.getKey(), e.getValue(), Integer::sum);
+            }
+        }
+        baseWords += words;
+    }
+}
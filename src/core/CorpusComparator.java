@@ -0,0 +1,196 @@
+package core;
+
+import model.AnalysisResult;
+import model.CorpusComparison;
+import model.KeywordScore;
+import model.WordCount;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*; // List, Set, PriorityQueue, Comparator, Objects
+
+/// CorpusComparator — porównanie dwóch korpusów (słowa charakterystyczne, "keyness")
+///
+/// Oba słowniki są budowane w postaci posortowanej (TextAnalyzer.sortedVocabularyFromText),
+/// a następnie złączane jednym liniowym przebiegiem (merge-join). Dla każdego słowa liczone są:
+/// różnica wystąpień, częstości względne, log-likelihood (G2) i chi-kwadrat.
+/// Top-K dla każdej strony trzymamy w małych kopcach, więc nie sortujemy całego słownika.
+
+public class CorpusComparator {
+
+    /** Kolejność wyników: malejąco po log-likelihood, przy remisie alfabetycznie. */
+    private static final Comparator<KeywordScore> BY_KEYNESS_DESC =
+            Comparator.comparingDouble(KeywordScore::logLikelihood).reversed()
+                    .thenComparing(KeywordScore::word);
+
+    private final TextAnalyzer analyzer;
+
+    public CorpusComparator(TextAnalyzer analyzer) {
+        this.analyzer = Objects.requireNonNull(analyzer, "analyzer must not be null");
+    }
+
+    /** Porównanie dwóch tekstów; topK (min. 1) słów charakterystycznych dla każdej strony. */
+    public CorpusComparison compare(String textA,
+                                    String textB,
+                                    Set<String> stopWords,
+                                    int minWordLength,
+                                    int topK) {
+        List<WordCount> a = analyzer.sortedVocabularyFromText(textA, stopWords, minWordLength);
+        List<WordCount> b = analyzer.sortedVocabularyFromText(textB, stopWords, minWordLength);
+        return compareSorted(a, b, topK);
+    }
+
+    /** Wersja plikowa. */
+    public CorpusComparison compareFiles(String pathA,
+                                         String pathB,
+                                         Set<String> stopWords,
+                                         int minWordLength,
+                                         int topK) throws IOException {
+        List<WordCount> a = analyzer.sortedVocabularyFromFile(pathA, stopWords, minWordLength);
+        List<WordCount> b = analyzer.sortedVocabularyFromFile(pathB, stopWords, minWordLength);
+        return compareSorted(a, b, topK);
+    }
+
+    /**
+     * Wersja plikowa z postępem, anulowaniem i terminem; pliki czytane kawałkami, postęp liczony
+     * łącznie dla obu. Po przerwaniu w trakcie pliku A porównanie dotyczy przetworzonej części A
+     * i pustego B; po przerwaniu w trakcie B – całego A i części B.
+     */
+    public AnalysisResult<CorpusComparison> compareFiles(String pathA,
+                                                         String pathB,
+                                                         Set<String> stopWords,
+                                                         int minWordLength,
+                                                         int topK,
+                                                         AnalysisControl control) throws IOException {
+        Objects.requireNonNull(control, "control must not be null");
+        long sizeA = Files.size(Path.of(pathA));
+        long total = sizeA + Files.size(Path.of(pathB));
+
+        long[] tokensA = { 0 };
+        AnalysisControl partA = control.part(0, 0, total);
+        AnalysisResult<List<WordCount>> a = analyzer.sortedVocabularyFromFile(pathA, stopWords, minWordLength,
+                new AnalysisControl(p -> {
+                    tokensA[0] = p.tokensProcessed();
+                    partA.listener().onProgress(p);
+                }, control.token(), control.deadline()));
+        if (!a.complete()) {
+            return new AnalysisResult<>(compareSorted(a.value(), List.of(), topK),
+                    a.status(), a.bytesProcessed(), total);
+        }
+
+        AnalysisResult<List<WordCount>> b = analyzer.sortedVocabularyFromFile(pathB, stopWords, minWordLength,
+                control.part(sizeA, tokensA[0], total));
+        return new AnalysisResult<>(compareSorted(a.value(), b.value(), topK),
+                b.status(), sizeA + b.bytesProcessed(), total);
+    }
+
+    /**
+     * Złączenie dwóch słowników posortowanych rosnąco po słowie (String.compareTo).
+     * Wejście musi być posortowane i bez duplikatów – tak jak zwraca sortedVocabularyFromText.
+     */
+    public CorpusComparison compareSorted(List<WordCount> sortedA, List<WordCount> sortedB, int topK) {
+        Objects.requireNonNull(sortedA, "sortedA must not be null");
+        Objects.requireNonNull(sortedB, "sortedB must not be null");
+        int k = Math.max(1, topK);
+
+        long totalA = total(sortedA);
+        long totalB = total(sortedB);
+
+        // Min-kopce rozmiaru k: na szczycie najsłabszy z dotychczasowych kandydatów
+        PriorityQueue<KeywordScore> heapA = new PriorityQueue<>(k + 1, BY_KEYNESS_DESC.reversed());
+        PriorityQueue<KeywordScore> heapB = new PriorityQueue<>(k + 1, BY_KEYNESS_DESC.reversed());
+
+        int shared = 0;
+        int i = 0, j = 0;
+        while (i < sortedA.size() || j < sortedB.size()) {
+            WordCount wa = i < sortedA.size() ? sortedA.get(i) : null;
+            WordCount wb = j < sortedB.size() ? sortedB.get(j) : null;
+
+            int cmp;
+            if (wa == null) cmp = 1;
+            else if (wb == null) cmp = -1;
+            else cmp = wa.word().compareTo(wb.word());
+
+            KeywordScore score;
+            if (cmp == 0) {
+                score = score(wa.word(), wa.count(), wb.count(), totalA, totalB);
+                shared++;
+                i++;
+                j++;
+            } else if (cmp < 0) {
+                score = score(wa.word(), wa.count(), 0, totalA, totalB);
+                i++;
+            } else {
+                score = score(wb.word(), 0, wb.count(), totalA, totalB);
+                j++;
+            }
+
+            if (score.overusedInA()) {
+                offer(heapA, score, k);
+            } else if (score.relFreqB() > score.relFreqA()) {
+                offer(heapB, score, k);
+            }
+        }
+
+        return new CorpusComparison(totalA, totalB, sortedA.size(), sortedB.size(), shared,
+                drain(heapA), drain(heapB));
+    }
+
+    // ====== Statystyki ======
+
+    /** Liczy częstości względne (na milion słów), G2 i chi-kwadrat dla jednego słowa. */
+    static KeywordScore score(String word, int a, int b, long totalA, long totalB) {
+        double c = totalA;
+        double d = totalB;
+        double n = c + d;
+
+        double relA = c > 0 ? a * 1_000_000.0 / c : 0.0;
+        double relB = d > 0 ? b * 1_000_000.0 / d : 0.0;
+
+        // Log-likelihood (Rayson & Garside): wartości oczekiwane przy założeniu braku różnicy
+        double ll = 0.0;
+        if (n > 0) {
+            double e1 = c * (a + b) / n;
+            double e2 = d * (a + b) / n;
+            if (a > 0 && e1 > 0) ll += a * Math.log(a / e1);
+            if (b > 0 && e2 > 0) ll += b * Math.log(b / e2);
+            ll *= 2.0;
+        }
+
+        // Chi-kwadrat dla tabeli [[a, b], [c - a, d - b]]
+        double chi = 0.0;
+        double rowWord = a + b;
+        double rowRest = n - rowWord;
+        double denominator = rowWord * rowRest * c * d;
+        if (denominator > 0) {
+            double diff = (double) a * (d - b) - (double) b * (c - a);
+            chi = n * diff * diff / denominator;
+        }
+
+        return new KeywordScore(word, a, b, relA, relB, ll, chi);
+    }
+
+    // ====== Pomocnicze ======
+
+    private static long total(List<WordCount> vocabulary) {
+        long sum = 0;
+        for (WordCount wc : vocabulary) {
+            sum += wc.count();
+        }
+        return sum;
+    }
+
+    private static void offer(PriorityQueue<KeywordScore> heap, KeywordScore score, int k) {
+        heap.offer(score);
+        if (heap.size() > k) {
+            heap.poll();
+        }
+    }
+
+    private static List<KeywordScore> drain(PriorityQueue<KeywordScore> heap) {
+        List<KeywordScore> result = new ArrayList<>(heap);
+        result.sort(BY_KEYNESS_DESC);
+        return result;
+    }
+}
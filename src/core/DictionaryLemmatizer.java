@@ -0,0 +1,309 @@
+package core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*; // ArrayList, Arrays, Comparator, HashMap, List, Map
+
+/// DictionaryLemmatizer — lematyzacja słownikowa na zminimalizowanym automacie skończonym (DAWG)
+///
+/// Słownik (forma -> lemat) wczytywany jest z lokalnego pliku UTF-8, jedna para w linii:
+///     domu<TAB>dom
+/// Puste linie i linie zaczynające się od '#' są pomijane; separatorem może być też spacja.
+///
+/// Zamiast HashMap<String,String> (dwa Stringi + węzeł na każdą formę) słownik trzymany jest jako
+/// deterministyczny automat w kilku tablicach prymitywów. Wyjście stanu końcowego to kod reguły
+/// "utnij k znaków z końca formy i dopisz sufiks" – takich reguł jest niewiele (setki), więc
+/// miliony form współdzielą kilka obiektów String.
+///
+/// Automat jest minimalny: budowany przyrostowo z form posortowanych (algorytm Daciuka i in.),
+/// każdy zamknięty stan trafia do rejestru i identyczny stan (to samo wyjście, te same krawędzie)
+/// jest używany ponownie. Kod reguły jest względny, więc np. wszystkie formy na "-ami" z tą samą
+/// końcówką lematu dzielą jeden ogon automatu – wspólne są nie tylko prefiksy (jak w trie),
+/// ale i sufiksy. Formy bez wpisu przekazywane są do lematyzatora zapasowego (np. PolishStemmer).
+///
+/// Plik posortowany wg formy czytany jest strumieniowo – w pamięci jest tylko ścieżka bieżącej formy
+/// i rejestr stanów. Plik nieposortowany jest najpierw sortowany w pamięci (jeden String na linię).
+public class DictionaryLemmatizer implements Lemmatizer {
+
+    private static final int NO_OUTPUT = -1;
+
+    // Stan s: krawędzie [firstEdge[s], firstEdge[s] + edgeCount[s]) posortowane wg etykiety, kod reguły
+    private final int[] firstEdge;
+    private final int[] edgeCount;
+    private final int[] output;
+    private final int root;
+
+    // Krawędź e: etykieta i stan docelowy
+    private final char[] edgeLabel;
+    private final int[] edgeTarget;
+
+    // Reguły: ile znaków uciąć z końca formy i co dopisać
+    private final int[] ruleStrip;
+    private final String[] ruleAppend;
+
+    private final Lemmatizer fallback;
+
+    private DictionaryLemmatizer(Builder b, Lemmatizer fallback) {
+        this.firstEdge = Arrays.copyOf(b.firstEdge, b.states);
+        this.edgeCount = Arrays.copyOf(b.edgeCount, b.states);
+        this.output = Arrays.copyOf(b.output, b.states);
+        this.root = b.root;
+        this.edgeLabel = Arrays.copyOf(b.edgeLabel, b.edges);
+        this.edgeTarget = Arrays.copyOf(b.edgeTarget, b.edges);
+        this.ruleStrip = b.ruleStrip.stream().mapToInt(Integer::intValue).toArray();
+        this.ruleAppend = b.ruleAppend.toArray(new String[0]);
+        this.fallback = fallback;
+    }
+
+    /**
+     * Wczytuje słownik z pliku.
+     *
+     * @param dictionary ścieżka do pliku "forma lemat"
+     * @param fallback   lematyzator dla słów spoza słownika (null = słowo bez zmian)
+     * @throws IOException gdy nie uda się odczytać pliku
+     */
+    public static DictionaryLemmatizer load(Path dictionary, Lemmatizer fallback) throws IOException {
+        Builder b = new Builder();
+        try (BufferedReader reader = Files.newBufferedReader(dictionary, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] pair = parse(line);
+                if (pair == null) continue;
+                if (!b.add(pair[0], pair[1])) {
+                    // Plik nie jest posortowany wg formy – budowa od nowa z posortowanej kopii
+                    return loadUnsorted(dictionary, fallback);
+                }
+            }
+        }
+        return new DictionaryLemmatizer(b.finish(), fallback);
+    }
+
+    /** Buduje automat z gotowej mapy forma -> lemat. */
+    public static DictionaryLemmatizer fromMap(Map<String, String> formToLemma, Lemmatizer fallback) {
+        String[] forms = formToLemma.keySet().toArray(new String[0]);
+        Arrays.sort(forms);
+        Builder b = new Builder();
+        for (String form : forms) {
+            b.add(form, formToLemma.get(form));
+        }
+        return new DictionaryLemmatizer(b.finish(), fallback);
+    }
+
+    @Override
+    public String lemma(String word) {
+        if (word == null || word.isEmpty()) return word;
+        int state = root;
+        for (int i = 0; i < word.length(); i++) {
+            state = next(state, word.charAt(i));
+            if (state < 0) return fallback(word);
+        }
+        int rule = output[state];
+        if (rule == NO_OUTPUT) return fallback(word);
+        return word.substring(0, word.length() - ruleStrip[rule]) + ruleAppend[rule];
+    }
+
+    /** Liczba stanów automatu (do diagnostyki rozmiaru słownika). */
+    public int states() {
+        return output.length;
+    }
+
+    /** Liczba krawędzi automatu (do diagnostyki rozmiaru słownika). */
+    public int edges() {
+        return edgeLabel.length;
+    }
+
+    // ====== Implementacja ======
+
+    /** Wyszukiwanie binarne wśród posortowanych krawędzi stanu; -1, jeśli brak krawędzi. */
+    private int next(int state, char c) {
+        int lo = firstEdge[state];
+        int hi = lo + edgeCount[state] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char m = edgeLabel[mid];
+            if (m < c) lo = mid + 1;
+            else if (m > c) hi = mid - 1;
+            else return edgeTarget[mid];
+        }
+        return -1;
+    }
+
+    private String fallback(String word) {
+        return fallback == null ? word : fallback.lemma(word);
+    }
+
+    // Linia pliku -> {forma, lemat} małymi literami; null dla linii pustych, komentarzy i niepełnych
+    private static String[] parse(String line) {
+        String t = line.trim();
+        if (t.isEmpty() || t.startsWith("#")) return null;
+        String[] parts = t.split("[\\t ]+");
+        if (parts.length < 2) return null;
+        return new String[] { parts[0].toLowerCase(), parts[1].toLowerCase() };
+    }
+
+    private static DictionaryLemmatizer loadUnsorted(Path dictionary, Lemmatizer fallback) throws IOException {
+        // "forma\tlemat" – sortowanie stabilne po samej formie zachowuje kolejność z pliku dla form
+        // wieloznacznych, więc jak w pliku posortowanym wygrywa pierwszy lemat
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(dictionary, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] pair = parse(line);
+                if (pair != null) lines.add(pair[0] + '\t' + pair[1]);
+            }
+        }
+        lines.sort(Comparator.comparing(l -> l.substring(0, l.indexOf('\t'))));
+        Builder b = new Builder();
+        for (String l : lines) {
+            int tab = l.indexOf('\t');
+            b.add(l.substring(0, tab), l.substring(tab + 1));
+        }
+        return new DictionaryLemmatizer(b.finish(), fallback);
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < n && a.charAt(i) == b.charAt(i)) i++;
+        return i;
+    }
+
+    /**
+     * Przyrostowa budowa minimalnego automatu z form podawanych rosnąco. Otwarte (jeszcze
+     * modyfikowalne) są tylko stany na ścieżce ostatniej formy; stan opuszczany przez nową formę
+     * jest zamykany: szukany w rejestrze albo zapisywany do tablic jako nowy.
+     */
+    private static final class Builder {
+        // Zamknięte stany i krawędzie (krawędzie stanu leżą w jednym ciągłym bloku)
+        int[] firstEdge = new int[1024];
+        int[] edgeCount = new int[1024];
+        int[] output = new int[1024];
+        int states;
+        char[] edgeLabel = new char[1024];
+        int[] edgeTarget = new int[1024];
+        int edges;
+        int root = -1;
+
+        // Rejestr zamkniętych stanów i tablica unikalnych reguł (strip, append)
+        final Map<StateKey, Integer> register = new HashMap<>();
+        final Map<String, Integer> ruleIds = new HashMap<>();
+        final List<Integer> ruleStrip = new ArrayList<>();
+        final List<String> ruleAppend = new ArrayList<>();
+
+        // Ścieżka ostatniej formy: path.get(d) to stan po d znakach
+        final List<OpenState> path = new ArrayList<>(List.of(new OpenState()));
+        String previous = "";
+        boolean empty = true;
+
+        /** Dodaje formę; false, gdy forma jest mniejsza od poprzedniej (wejście nieposortowane). */
+        boolean add(String form, String lemma) {
+            int cmp = form.compareTo(previous);
+            if (cmp < 0) return false;
+            if (cmp == 0 && !empty) return true; // forma wieloznaczna – zostaje pierwszy lemat
+
+            int common = commonPrefix(previous, form);
+            closeDownTo(common);
+            for (int d = common; d < form.length(); d++) {
+                path.get(d).addEdge(form.charAt(d));
+                path.add(new OpenState());
+            }
+            path.get(form.length()).output = rule(form, lemma);
+            previous = form;
+            empty = false;
+            return true;
+        }
+
+        Builder finish() {
+            closeDownTo(0);
+            root = close(path.get(0));
+            return this;
+        }
+
+        // Zamyka stany ścieżki głębsze niż depth i podpina je pod ostatnią krawędź rodzica
+        private void closeDownTo(int depth) {
+            while (path.size() - 1 > depth) {
+                OpenState last = path.remove(path.size() - 1);
+                path.get(path.size() - 1).setLastTarget(close(last));
+            }
+        }
+
+        private int close(OpenState s) {
+            StateKey key = new StateKey(s.output,
+                    Arrays.copyOf(s.labels, s.count), Arrays.copyOf(s.targets, s.count));
+            Integer existing = register.get(key);
+            if (existing != null) return existing;
+
+            int id = states++;
+            if (id == output.length) {
+                int cap = id * 2;
+                firstEdge = Arrays.copyOf(firstEdge, cap);
+                edgeCount = Arrays.copyOf(edgeCount, cap);
+                output = Arrays.copyOf(output, cap);
+            }
+            if (edges + s.count > edgeLabel.length) {
+                int cap = Math.max(edgeLabel.length * 2, edges + s.count);
+                edgeLabel = Arrays.copyOf(edgeLabel, cap);
+                edgeTarget = Arrays.copyOf(edgeTarget, cap);
+            }
+            firstEdge[id] = edges;
+            edgeCount[id] = s.count;
+            output[id] = s.output;
+            System.arraycopy(s.labels, 0, edgeLabel, edges, s.count);
+            System.arraycopy(s.targets, 0, edgeTarget, edges, s.count);
+            edges += s.count;
+            register.put(key, id);
+            return id;
+        }
+
+        // Kodowanie lematu jako reguły (strip, append) względem formy
+        private int rule(String form, String lemma) {
+            int common = commonPrefix(form, lemma);
+            int strip = form.length() - common;
+            String append = lemma.substring(common);
+            return ruleIds.computeIfAbsent(strip + "|" + append, k -> {
+                ruleStrip.add(strip);
+                ruleAppend.add(append.intern());
+                return ruleStrip.size() - 1;
+            });
+        }
+    }
+
+    /** Stan na ścieżce ostatniej formy; cel ostatniej krawędzi jest znany dopiero po zamknięciu dziecka. */
+    private static final class OpenState {
+        char[] labels = new char[4];
+        int[] targets = new int[4];
+        int count;
+        int output = NO_OUTPUT;
+
+        void addEdge(char label) {
+            if (count == labels.length) {
+                labels = Arrays.copyOf(labels, count * 2);
+                targets = Arrays.copyOf(targets, count * 2);
+            }
+            labels[count] = label;
+            targets[count] = -1;
+            count++;
+        }
+
+        void setLastTarget(int target) {
+            targets[count - 1] = target;
+        }
+    }
+
+    /** Tożsamość zamkniętego stanu w rejestrze: wyjście i lista krawędzi (etykieta, cel). */
+    private record StateKey(int output, char[] labels, int[] targets) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey k && output == k.output
+                    && Arrays.equals(labels, k.labels) && Arrays.equals(targets, k.targets);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * output + Arrays.hashCode(labels)) + Arrays.hashCode(targets);
+        }
+    }
+}
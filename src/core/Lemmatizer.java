@@ -0,0 +1,6 @@
+package core;
+
+/// Lemmatizer — sprowadza słowo (po normalizacji) do formy podstawowej, np. "domu" -> "dom"
+public interface Lemmatizer {
+    String lemma(String word);
+}
@@ -0,0 +1,47 @@
+package core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+/// LemmatizingTokenizer — dekorator Tokenizera: po podziale na słowa zamienia każde słowo na lemat.
+///
+/// Dzięki temu lematyzację włącza się bez zmian w TextAnalyzer – wystarczy przekazać ten tokenizer
+/// w konstruktorze, np. new LemmatizingTokenizer(new WhitespaceTokenizer(), lemmatizer).
+public class LemmatizingTokenizer implements Tokenizer {
+    private final Tokenizer delegate;
+    private final Lemmatizer lemmatizer;
+
+    public LemmatizingTokenizer(Tokenizer delegate, Lemmatizer lemmatizer) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.lemmatizer = Objects.requireNonNull(lemmatizer, "lemmatizer must not be null");
+    }
+
+    /**
+     * Tokenizer wg ustawienia lematyzacji podawanego przez użytkownika: "" – bez lematyzacji
+     * (zwraca delegate), "stem" – stemmer regułowy, inaczej ścieżka słownika (DictionaryLemmatizer
+     * ze stemmerem dla słów spoza słownika). Lematy są buforowane w CachingLemmatizer.
+     * Jedno miejsce budowy dla menu, demona i robotników map-reduce – wszędzie ten sam tokenizer.
+     *
+     * @throws IOException gdy nie uda się odczytać słownika
+     */
+    public static Tokenizer forSetting(Tokenizer delegate, String setting, int cacheSize) throws IOException {
+        Objects.requireNonNull(delegate, "delegate must not be null");
+        Objects.requireNonNull(setting, "setting must not be null");
+        if (setting.isEmpty()) return delegate;
+
+        Lemmatizer lemmatizer = new PolishStemmer();
+        if (!setting.equalsIgnoreCase("stem")) {
+            lemmatizer = DictionaryLemmatizer.load(Path.of(setting), lemmatizer);
+        }
+        return new LemmatizingTokenizer(delegate, new CachingLemmatizer(lemmatizer, cacheSize));
+    }
+
+    @Override
+    public List<String> words(String normalizedText) {
+        List<String> words = delegate.words(normalizedText);
+        words.replaceAll(lemmatizer::lemma);
+        return words;
+    }
+}
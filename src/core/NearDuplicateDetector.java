@@ -0,0 +1,320 @@
+package core;
+
+import model.AnalysisResult;
+import model.DeduplicationResult;
+import model.DuplicateCluster;
+import model.Progress;
+import model.TextStats;
+
+import io.ChunkedTextReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*; // ArrayList, Arrays, HashMap, LinkedHashMap, List, Map, Objects, Set, SplittableRandom
+
+/// NearDuplicateDetector — wykrywanie (prawie) identycznych dokumentów w kolekcji: MinHash + LSH
+///
+/// Dokument to zbiór shingli – ciągów shingleSize kolejnych słów z tej samej ścieżki
+/// normalize/tokenize co reszta analizy (TextAnalyzer.tokens). Sygnatura MinHash to minimum
+/// każdej z bands * rows funkcji haszujących po shinglach; odsetek zgodnych pozycji dwóch
+/// sygnatur szacuje podobieństwo Jaccarda zbiorów shingli.
+///
+/// Żeby nie porównywać każdej pary, sygnatura dzielona jest na pasma (LSH banding): dokumenty
+/// z identycznym pasmem trafiają do wspólnego kubełka i tylko one są kandydatami. Kandydat jest
+/// potwierdzany, gdy szacowane podobieństwo >= threshold; potwierdzone pary łączy union-find,
+/// więc grupa to składowa spójna (podobieństwo nie musi być przechodnie).
+///
+/// Przy domyślnych 16 pasmach po 8 wierszy próg wykrycia przez LSH to ok. (1/16)^(1/8) ≈ 0.71.
+
+public class NearDuplicateDetector {
+
+    // Stały seed – te same dokumenty zawsze dają te same sygnatury
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final TextAnalyzer analyzer;
+    private final int shingleSize;
+    private final int bands;
+    private final int rows;
+    private final double threshold;
+    private final long[] multipliers;
+    private final long[] offsets;
+
+    /** Domyślnie: shingle 5 słów, 16 pasm × 8 wierszy, próg podobieństwa 0.8. */
+    public NearDuplicateDetector(TextAnalyzer analyzer) {
+        this(analyzer, 5, 16, 8, 0.8);
+    }
+
+    public NearDuplicateDetector(TextAnalyzer analyzer, int shingleSize, int bands, int rows, double threshold) {
+        this.analyzer = Objects.requireNonNull(analyzer, "analyzer must not be null");
+        if (shingleSize < 1) throw new IllegalArgumentException("shingleSize must be >= 1");
+        if (bands < 1 || rows < 1) throw new IllegalArgumentException("bands and rows must be >= 1");
+        if (!(threshold > 0 && threshold <= 1)) throw new IllegalArgumentException("threshold must be in (0, 1]");
+        this.shingleSize = shingleSize;
+        this.bands = bands;
+        this.rows = rows;
+        this.threshold = threshold;
+
+        // h_i(x) = a_i * x + b_i (mod 2^64), górne bity jako wartość – tanie, niezależne permutacje
+        int n = bands * rows;
+        SplittableRandom random = new SplittableRandom(SEED);
+        this.multipliers = new long[n];
+        this.offsets = new long[n];
+        for (int i = 0; i < n; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            offsets[i] = random.nextLong();
+        }
+    }
+
+    /** Sygnatura MinHash listy słów; null dla dokumentu bez słów. Krótszy dokument to jeden shingle. */
+    public int[] signature(List<String> words) {
+        if (words.isEmpty()) return null;
+        long[] tokenHashes = new long[words.size()];
+        for (int i = 0; i < tokenHashes.length; i++) {
+            tokenHashes[i] = hash64(words.get(i));
+        }
+
+        int[] sig = new int[multipliers.length];
+        Arrays.fill(sig, Integer.MAX_VALUE);
+        int k = Math.min(shingleSize, tokenHashes.length);
+        for (int start = 0; start + k <= tokenHashes.length; start++) {
+            long x = 0;
+            for (int j = start; j < start + k; j++) {
+                x = x * 0x9E3779B97F4A7C15L + tokenHashes[j];
+            }
+            x = mix64(x);
+            for (int i = 0; i < sig.length; i++) {
+                int v = (int) ((multipliers[i] * x + offsets[i]) >>> 33);
+                if (v < sig[i]) sig[i] = v;
+            }
+        }
+        return sig;
+    }
+
+    /** Szacowane podobieństwo Jaccarda – odsetek zgodnych pozycji dwóch sygnatur. */
+    public static double similarity(int[] a, int[] b) {
+        if (a == null || b == null || a.length != b.length) return 0.0;
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) same++;
+        }
+        return (double) same / a.length;
+    }
+
+    /** Grupy duplikatów wśród nazwanych tekstów (kolejność mapy decyduje o reprezentantach). */
+    public List<DuplicateCluster> findDuplicatesFromTexts(Map<String, String> documents) {
+        List<String> names = new ArrayList<>(documents.keySet());
+        List<int[]> signatures = new ArrayList<>(names.size());
+        for (String name : names) {
+            signatures.add(signature(analyzer.tokens(documents.get(name))));
+        }
+        return toClusters(names, signatures, groups(signatures));
+    }
+
+    /**
+     * Analiza kolekcji plików: grupy duplikatów + zsumowane TextStats i częstotliwości.
+     * Przy excludeDuplicates do sum wchodzi tylko reprezentant każdej grupy; częstotliwości
+     * liczone są wtedy w drugim przebiegu (po znalezieniu grup), tylko dla zachowanych plików.
+     */
+    public DeduplicationResult analyzeFiles(List<String> paths,
+                                            Set<String> stopWords,
+                                            int minWordLength,
+                                            boolean excludeDuplicates) throws IOException {
+        return analyzeFiles(paths, stopWords, minWordLength, excludeDuplicates, AnalysisControl.none()).value();
+    }
+
+    /**
+     * analyzeFiles z postępem, anulowaniem i terminem (sprawdzanymi między dokumentami).
+     * Przerwanie w pierwszym przebiegu daje grupy i sumy tylko dla przeczytanych dokumentów;
+     * w drugim – pełne grupy i TextStats, ale częściowe częstotliwości.
+     */
+    public AnalysisResult<DeduplicationResult> analyzeFiles(List<String> paths,
+                                                            Set<String> stopWords,
+                                                            int minWordLength,
+                                                            boolean excludeDuplicates,
+                                                            AnalysisControl control) throws IOException {
+        Objects.requireNonNull(control, "control must not be null");
+        long start = System.nanoTime();
+        long sizes = 0;
+        for (String p : paths) sizes += Files.size(Path.of(p));
+        // Drugi przebieg czyta ponownie zachowane pliki; dopóki grupy są nieznane, zakładamy wszystkie
+        long total = excludeDuplicates ? 2 * sizes : sizes;
+        long bytesDone = 0;
+        long tokens = 0;
+        AnalysisResult.Status status = AnalysisResult.Status.COMPLETE;
+
+        int n = paths.size();
+        List<int[]> signatures = new ArrayList<>(n);
+        TextStats[] docStats = new TextStats[n];
+        Map<String, Integer> frequency = new HashMap<>();
+
+        int read = 0;
+        for (; read < n; read++) {
+            status = interruption(control);
+            if (status != AnalysisResult.Status.COMPLETE) break;
+            String text = read(paths.get(read));
+            List<String> words = analyzer.tokens(text);
+            signatures.add(signature(words));
+            docStats[read] = analyzer.analyze(text);
+            if (!excludeDuplicates) {
+                mergeInto(frequency, analyzer.wordFrequencyFromTokens(words, stopWords, minWordLength));
+            }
+            bytesDone += Files.size(Path.of(paths.get(read)));
+            tokens += words.size();
+            control.listener().onProgress(Progress.since(bytesDone, total, tokens, start));
+        }
+        List<String> documents = paths.subList(0, read);
+
+        List<List<Integer>> groups = groups(signatures);
+        boolean[] excluded = new boolean[read];
+        int excludedCount = 0;
+        if (excludeDuplicates) {
+            for (List<Integer> g : groups) {
+                for (int j = 1; j < g.size(); j++) {
+                    excluded[g.get(j)] = true;
+                    excludedCount++;
+                }
+            }
+        }
+
+        TextStats stats = new TextStats(0, 0, 0, 0);
+        for (int i = 0; i < read; i++) {
+            if (!excluded[i]) stats = stats.plus(docStats[i]);
+        }
+
+        if (excludeDuplicates && status == AnalysisResult.Status.COMPLETE) {
+            total = bytesDone;
+            for (int i = 0; i < read; i++) {
+                if (!excluded[i]) total += Files.size(Path.of(paths.get(i)));
+            }
+            for (int i = 0; i < read; i++) {
+                if (excluded[i]) continue;
+                status = interruption(control);
+                if (status != AnalysisResult.Status.COMPLETE) break;
+                String text = read(paths.get(i));
+                mergeInto(frequency, analyzer.wordFrequencyFromTokens(analyzer.tokens(text), stopWords, minWordLength));
+                bytesDone += Files.size(Path.of(paths.get(i)));
+                control.listener().onProgress(Progress.since(bytesDone, total, tokens, start));
+            }
+        }
+
+        DeduplicationResult result = new DeduplicationResult(read, excludedCount,
+                toClusters(documents, signatures, groups), stats, frequency);
+        return new AnalysisResult<>(result, status, bytesDone, total);
+    }
+
+    private static AnalysisResult.Status interruption(AnalysisControl control) {
+        if (control.token().isCancelled()) return AnalysisResult.Status.CANCELLED;
+        if (control.deadlinePassed()) return AnalysisResult.Status.TIMED_OUT;
+        return AnalysisResult.Status.COMPLETE;
+    }
+
+    // ====== Implementacja ======
+
+    // Grupy (co najmniej 2 dokumenty) jako posortowane listy indeksów; pierwszy = reprezentant
+    private List<List<Integer>> groups(List<int[]> signatures) {
+        int n = signatures.size();
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
+
+        Map<Long, List<Integer>> buckets = new HashMap<>();
+        for (int band = 0; band < bands; band++) {
+            buckets.clear();
+            for (int d = 0; d < n; d++) {
+                int[] sig = signatures.get(d);
+                if (sig == null) continue;
+                buckets.computeIfAbsent(bandKey(sig, band), k -> new ArrayList<>(2)).add(d);
+            }
+            for (List<Integer> bucket : buckets.values()) {
+                // Kandydaci tylko w obrębie kubełka; pary już połączone pomijamy bez porównania
+                for (int i = 1; i < bucket.size(); i++) {
+                    int d = bucket.get(i);
+                    for (int j = 0; j < i; j++) {
+                        int e = bucket.get(j);
+                        if (find(parent, d) != find(parent, e)
+                                && similarity(signatures.get(d), signatures.get(e)) >= threshold) {
+                            union(parent, d, e);
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<Integer, List<Integer>> byRoot = new LinkedHashMap<>();
+        for (int d = 0; d < n; d++) {
+            byRoot.computeIfAbsent(find(parent, d), k -> new ArrayList<>()).add(d);
+        }
+        List<List<Integer>> groups = new ArrayList<>();
+        for (List<Integer> g : byRoot.values()) {
+            if (g.size() > 1) groups.add(g);
+        }
+        return groups;
+    }
+
+    private static List<DuplicateCluster> toClusters(List<String> names, List<int[]> signatures, List<List<Integer>> groups) {
+        List<DuplicateCluster> clusters = new ArrayList<>(groups.size());
+        for (List<Integer> g : groups) {
+            int rep = g.get(0);
+            Map<String, Double> duplicates = new LinkedHashMap<>();
+            for (int j = 1; j < g.size(); j++) {
+                int d = g.get(j);
+                duplicates.put(names.get(d), similarity(signatures.get(rep), signatures.get(d)));
+            }
+            clusters.add(new DuplicateCluster(names.get(rep), duplicates));
+        }
+        return clusters;
+    }
+
+    private long bandKey(int[] sig, int band) {
+        long h = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            h = h * 0x9E3779B97F4A7C15L + sig[i];
+        }
+        return mix64(h);
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]]; // skracanie ścieżki co drugi krok
+            x = parent[x];
+        }
+        return x;
+    }
+
+    // Mniejszy indeks zostaje korzeniem – reprezentant grupy to pierwszy dokument kolekcji
+    private static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        if (ra < rb) parent[rb] = ra;
+        else if (rb < ra) parent[ra] = rb;
+    }
+
+    // Ten sam tekst (UTF-8) co FileUtil.readFileToString i kawałki ChunkedTextReader –
+    // odczyt jednym wywołaniem, bo przy tysiącach małych dokumentów i dwóch przebiegach to dominujący koszt
+    private static String read(String path) throws IOException {
+        return ChunkedTextReader.decode(Files.readAllBytes(Path.of(path)));
+    }
+
+    private static void mergeInto(Map<String, Integer> total, Map<String, Integer> part) {
+        for (Map.Entry<String, Integer> e : part.entrySet()) {
+            total.merge(e.getKey(), e.getValue(), Integer::sum);
+        }
+    }
+
+    // FNV-1a 64 po znakach – 64 bity zamiast 32 z String.hashCode, mniej kolizji shingli
+    private static long hash64(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // Finalizer SplitMix64 – rozprasza bity przed funkcjami MinHash
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
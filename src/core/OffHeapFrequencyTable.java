@@ -0,0 +1,279 @@
+package core;
+
+import model.WordCount;
+import model.WordSort;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.*; // Iterator, List, ArrayList, NoSuchElementException
+import java.util.function.ObjIntConsumer;
+
+/// OffHeapFrequencyTable — tablica częstotliwości trzymana poza stertą (Foreign Function & Memory API)
+///
+/// Dla słowników rzędu dziesiątek milionów wpisów HashMap<String,Integer> oznacza dziesiątki
+/// milionów obiektów (String, byte[], Integer, Node), które GC musi przeglądać. Tutaj:
+///  - tablica haszująca (adresowanie otwarte, próbkowanie liniowe) to jeden MemorySegment,
+///  - klucze (bajty UTF-8) leżą jeden za drugim w osobnym segmencie ("arena kluczy"),
+///  - na stercie zostaje tylko kilka obiektów, niezależnie od rozmiaru słownika.
+///
+/// Pamięć zwalniana jest deterministycznie w close() (try-with-resources).
+/// Segmenty są alokowane w Arena.ofConfined(), więc z tablicy może korzystać tylko wątek, który ją utworzył.
+
+public final class OffHeapFrequencyTable implements Iterable<WordCount>, AutoCloseable {
+
+    // Układ slotu: [long keyOffset+1][int keyLength][int count][int hash][int padding] = 24 B
+    private static final long SLOT_BYTES = 24;
+    private static final long KEY_REF = 0;
+    private static final long KEY_LEN = 8;
+    private static final long COUNT = 12;
+    private static final long HASH = 16;
+
+    private static final int MIN_CAPACITY = 16;
+    // Największa pojemność int będąca potęgą dwójki; przy 70% zapełnienia to ok. 750 mln słów
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final long MIN_KEY_BYTES = 4096;
+
+    private Arena slotArena;
+    private MemorySegment slots;
+    private int capacity; // zawsze potęga dwójki
+    private int size;
+    private long totalCount;
+
+    private Arena keyArena;
+    private MemorySegment keys;
+    private long keysUsed;
+
+    private boolean closed;
+
+    public OffHeapFrequencyTable() {
+        this(1024);
+    }
+
+    /** @param expectedSize przewidywana liczba różnych słów (unika przebudowy tablicy) */
+    public OffHeapFrequencyTable(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("expectedSize must be >= 0");
+        int cap = MIN_CAPACITY;
+        while (cap < expectedSize * 10L / 7 + 1 && cap < MAX_CAPACITY) cap <<= 1;
+        this.capacity = cap;
+        this.slotArena = Arena.ofConfined();
+        this.slots = allocateSlots(slotArena, cap);
+        this.keyArena = Arena.ofConfined();
+        this.keys = keyArena.allocate(Math.max(MIN_KEY_BYTES, expectedSize * 8L), 1);
+    }
+
+    // ====== API ======
+
+    /** Zwiększa licznik słowa o 1. */
+    public void increment(String word) {
+        add(word, 1);
+    }
+
+    /**
+     * Zwiększa licznik słowa o delta (delta > 0). Licznik słowa (int) nasyca się na
+     * Integer.MAX_VALUE zamiast przekręcić się na wartość ujemną; totalCount() (long) jest dokładny.
+     */
+    public void add(String word, int delta) {
+        ensureOpen();
+        if (delta <= 0) throw new IllegalArgumentException("delta must be > 0");
+        byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(word);
+
+        long slot = findSlot(bytes, hash);
+        if (slots.get(ValueLayout.JAVA_LONG, slot + KEY_REF) != 0) {
+            long count = (long) slots.get(ValueLayout.JAVA_INT, slot + COUNT) + delta;
+            slots.set(ValueLayout.JAVA_INT, slot + COUNT, (int) Math.min(Integer.MAX_VALUE, count));
+        } else {
+            long offset = appendKey(bytes);
+            slots.set(ValueLayout.JAVA_LONG, slot + KEY_REF, offset + 1);
+            slots.set(ValueLayout.JAVA_INT, slot + KEY_LEN, bytes.length);
+            slots.set(ValueLayout.JAVA_INT, slot + COUNT, delta);
+            slots.set(ValueLayout.JAVA_INT, slot + HASH, hash);
+            size++;
+            if (size * 10L >= capacity * 7L) {
+                grow();
+            }
+        }
+        totalCount += delta;
+    }
+
+    /** Liczba wystąpień słowa (0, jeśli brak). */
+    public int get(String word) {
+        ensureOpen();
+        long slot = findSlot(word.getBytes(StandardCharsets.UTF_8), hash(word));
+        return slots.get(ValueLayout.JAVA_LONG, slot + KEY_REF) != 0
+                ? slots.get(ValueLayout.JAVA_INT, slot + COUNT)
+                : 0;
+    }
+
+    /** Liczba różnych słów. */
+    public int size() {
+        return size;
+    }
+
+    /** Suma wszystkich liczników. */
+    public long totalCount() {
+        return totalCount;
+    }
+
+    /** Bajty zajęte poza stertą (tablica slotów + arena kluczy). */
+    public long offHeapBytes() {
+        return closed ? 0 : slots.byteSize() + keys.byteSize();
+    }
+
+    /** Przechodzi po wszystkich wpisach (kolejność nieokreślona). */
+    public void forEach(ObjIntConsumer<String> action) {
+        ensureOpen();
+        for (int i = 0; i < capacity; i++) {
+            long slot = i * SLOT_BYTES;
+            long ref = slots.get(ValueLayout.JAVA_LONG, slot + KEY_REF);
+            if (ref != 0) {
+                action.accept(keyAt(ref - 1, slots.get(ValueLayout.JAVA_INT, slot + KEY_LEN)),
+                        slots.get(ValueLayout.JAVA_INT, slot + COUNT));
+            }
+        }
+    }
+
+    /** Iterator po wpisach jako WordCount (kolejność nieokreślona); String tworzony leniwie dla każdego wpisu. */
+    @Override
+    public Iterator<WordCount> iterator() {
+        ensureOpen();
+        return new Iterator<>() {
+            private int next = advance(0);
+
+            private int advance(int from) {
+                int i = from;
+                while (i < capacity && slots.get(ValueLayout.JAVA_LONG, i * SLOT_BYTES + KEY_REF) == 0) i++;
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < capacity;
+            }
+
+            @Override
+            public WordCount next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                ensureOpen();
+                long slot = next * SLOT_BYTES;
+                WordCount wc = new WordCount(
+                        keyAt(slots.get(ValueLayout.JAVA_LONG, slot + KEY_REF) - 1,
+                                slots.get(ValueLayout.JAVA_INT, slot + KEY_LEN)),
+                        slots.get(ValueLayout.JAVA_INT, slot + COUNT));
+                next = advance(next + 1);
+                return wc;
+            }
+        };
+    }
+
+    /** Lista wpisów posortowana wg WordSort (materializuje słownik na stercie). */
+    public List<WordCount> sorted(WordSort sortMode) {
+        List<WordCount> result = new ArrayList<>(size);
+        for (WordCount wc : this) {
+            result.add(wc);
+        }
+        result.sort(sortMode.comparator());
+        return result;
+    }
+
+    /** Zwalnia całą pamięć poza stertą. Kolejne wywołania są ignorowane. */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        slotArena.close();
+        keyArena.close();
+        slots = null;
+        keys = null;
+    }
+
+    // ====== Implementacja ======
+
+    /** Zwraca offset slotu ze słowem albo pierwszego wolnego slotu na jego drodze próbkowania. */
+    private long findSlot(byte[] bytes, int hash) {
+        int mask = capacity - 1;
+        int i = hash & mask;
+        MemorySegment probe = null;
+        while (true) {
+            long slot = i * SLOT_BYTES;
+            long ref = slots.get(ValueLayout.JAVA_LONG, slot + KEY_REF);
+            if (ref == 0) return slot;
+            if (slots.get(ValueLayout.JAVA_INT, slot + HASH) == hash
+                    && slots.get(ValueLayout.JAVA_INT, slot + KEY_LEN) == bytes.length) {
+                if (probe == null) probe = MemorySegment.ofArray(bytes);
+                long start = ref - 1;
+                if (MemorySegment.mismatch(keys, start, start + bytes.length, probe, 0, bytes.length) == -1) {
+                    return slot;
+                }
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private long appendKey(byte[] bytes) {
+        if (keysUsed + bytes.length > keys.byteSize()) {
+            long newSize = keys.byteSize();
+            while (keysUsed + bytes.length > newSize) newSize <<= 1;
+            Arena newArena = Arena.ofConfined();
+            MemorySegment newKeys = newArena.allocate(newSize, 1);
+            MemorySegment.copy(keys, 0, newKeys, 0, keysUsed);
+            keyArena.close();
+            keyArena = newArena;
+            keys = newKeys;
+        }
+        long offset = keysUsed;
+        MemorySegment.copy(bytes, 0, keys, ValueLayout.JAVA_BYTE, offset, bytes.length);
+        keysUsed += bytes.length;
+        return offset;
+    }
+
+    private void grow() {
+        if (capacity >= MAX_CAPACITY) {
+            // Bez tej kontroli capacity << 1 przepełnia int i daje ujemną pojemność
+            throw new IllegalStateException("OffHeapFrequencyTable is full: " + size
+                    + " distinct words at maximum capacity " + MAX_CAPACITY);
+        }
+        rehash(capacity << 1);
+    }
+
+    private void rehash(int newCapacity) {
+        Arena newArena = Arena.ofConfined();
+        MemorySegment newSlots = allocateSlots(newArena, newCapacity);
+        int mask = newCapacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            long slot = i * SLOT_BYTES;
+            if (slots.get(ValueLayout.JAVA_LONG, slot + KEY_REF) == 0) continue;
+            int j = slots.get(ValueLayout.JAVA_INT, slot + HASH) & mask;
+            while (newSlots.get(ValueLayout.JAVA_LONG, j * SLOT_BYTES + KEY_REF) != 0) {
+                j = (j + 1) & mask;
+            }
+            MemorySegment.copy(slots, slot, newSlots, j * SLOT_BYTES, SLOT_BYTES);
+        }
+        slotArena.close();
+        slotArena = newArena;
+        slots = newSlots;
+        capacity = newCapacity;
+    }
+
+    private String keyAt(long offset, int length) {
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(keys, ValueLayout.JAVA_BYTE, offset, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static MemorySegment allocateSlots(Arena arena, int capacity) {
+        // Arena.allocate zwraca pamięć wyzerowaną, więc wszystkie sloty są od razu puste
+        return arena.allocate(capacity * SLOT_BYTES, 8);
+    }
+
+    private static int hash(String word) {
+        int h = word.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("OffHeapFrequencyTable is closed");
+    }
+}
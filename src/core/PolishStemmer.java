@@ -0,0 +1,32 @@
+package core;
+
+/// PolishStemmer — prosty stemmer regułowy dla polszczyzny (odcinanie końcówek fleksyjnych)
+///
+/// Używany jako zapasowa ścieżka, gdy słowa nie ma w słowniku lematów. Daje rdzeń, nie lemat
+/// ("domem" -> "dom", ale "kotami" -> "kot", "książkami" -> "książk"), co wystarcza, żeby
+/// formy jednego słowa liczyły się razem. Końcówki sprawdzane są od najdłuższej.
+public class PolishStemmer implements Lemmatizer {
+
+    // Minimalna długość rdzenia po odcięciu końcówki (chroni krótkie słowa: "dom", "kot", "las")
+    private static final int MIN_STEM = 3;
+
+    // Końcówki od najdłuższych – pierwsza pasująca wygrywa
+    private static final String[] SUFFIXES = {
+            "ościami", "ościach",
+            "owania", "owanie", "owaniu", "ściami",
+            "ością", "ości", "iami", "iach", "owie", "owi", "ach", "ami", "ego", "emu", "ymi", "imi",
+            "ych", "ich", "iem", "iej", "ów", "om", "em", "ej", "ym", "im", "ie", "ia", "iu", "ią",
+            "a", "ą", "e", "ę", "i", "o", "u", "y"
+    };
+
+    @Override
+    public String lemma(String word) {
+        if (word == null || word.length() <= MIN_STEM) return word;
+        for (String suffix : SUFFIXES) {
+            if (word.length() - suffix.length() >= MIN_STEM && word.endsWith(suffix)) {
+                return word.substring(0, word.length() - suffix.length());
+            }
+        }
+        return word;
+    }
+}
@@ -0,0 +1,12 @@
+package core;
+
+import model.Progress;
+
+/// ProgressListener — odbiera postęp długiej analizy (wywoływany z wątku analizy, co kawałek pliku)
+@FunctionalInterface
+public interface ProgressListener {
+    void onProgress(Progress progress);
+
+    /** Listener, który nic nie robi. */
+    ProgressListener NONE = progress -> { };
+}
@@ -0,0 +1,176 @@
+package core;
+
+import model.WindowSnapshot;
+import model.WordCount;
+
+import java.util.*; // ArrayList, HashMap, List, Map, PriorityQueue
+
+/// SlidingWindowTopN — top-N słów w oknie przesuwnym nad strumieniem tokenów
+///
+/// Zamiast liczyć każde okno od zera, licznik jest aktualizowany przyrostowo:
+/// token wchodzący do okna zwiększa licznik, token wychodzący go zmniejsza.
+/// Liczniki trzymamy w indeksowanym kopcu (max-heap + mapa słowo -> pozycja),
+/// więc każda zmiana kosztuje O(log V), a migawka top-N — O(N log N).
+///
+/// Pozycje odfiltrowane (stop-words, za krótkie słowa) przekazujemy jako null:
+/// zajmują miejsce w oknie, ale nie są liczone.
+
+public class SlidingWindowTopN {
+
+    private final int windowSize;
+    private final int step;
+    private final int topN;
+
+    // Bufor cykliczny z tokenami aktualnie w oknie
+    private final String[] ring;
+    private long position; // liczba przyjętych tokenów
+
+    // Indeksowany kopiec: heapWords/heapCounts w porządku kopca, index: słowo -> pozycja w kopcu
+    private String[] heapWords = new String[64];
+    private int[] heapCounts = new int[64];
+    private int heapSize;
+    private final Map<String, Integer> index = new HashMap<>();
+
+    private final List<WindowSnapshot> snapshots = new ArrayList<>();
+
+    public SlidingWindowTopN(int windowSize, int step, int topN) {
+        if (windowSize < 1) throw new IllegalArgumentException("windowSize must be >= 1");
+        if (step < 1) throw new IllegalArgumentException("step must be >= 1");
+        this.windowSize = windowSize;
+        this.step = step;
+        this.topN = Math.max(1, topN);
+        this.ring = new String[windowSize];
+    }
+
+    /** Przyjmuje kolejny token (null = pozycja nieliczona). */
+    public void accept(String token) {
+        int slot = (int) (position % windowSize);
+        if (position >= windowSize && ring[slot] != null) {
+            decrement(ring[slot]);
+        }
+        ring[slot] = token;
+        if (token != null) {
+            increment(token);
+        }
+        position++;
+
+        long start = position - windowSize;
+        if (start >= 0 && start % step == 0) {
+            snapshots.add(new WindowSnapshot(snapshots.size(), start, position, top()));
+        }
+    }
+
+    /**
+     * Kończy strumień i zwraca serię migawek.
+     * Jeśli strumień był krótszy niż okno, zwracana jest jedna migawka dla całości.
+     */
+    public List<WindowSnapshot> finish() {
+        if (snapshots.isEmpty() && position > 0) {
+            snapshots.add(new WindowSnapshot(0, 0, position, top()));
+        }
+        return List.copyOf(snapshots);
+    }
+
+    /** Aktualne top-N w oknie (malejąco po liczbie, przy remisie wg String.compareTo). */
+    public List<WordCount> top() {
+        List<WordCount> result = new ArrayList<>(Math.min(topN, heapSize));
+        if (heapSize == 0) return result;
+
+        // Przeszukiwanie "best-first" po kopcu: dzieci węzła nigdy nie są lepsze od rodzica
+        PriorityQueue<Integer> frontier = new PriorityQueue<>((a, b) -> before(a, b) ? -1 : 1);
+        frontier.add(0);
+        while (!frontier.isEmpty() && result.size() < topN) {
+            int i = frontier.poll();
+            result.add(new WordCount(heapWords[i], heapCounts[i]));
+            int left = 2 * i + 1;
+            if (left < heapSize) frontier.add(left);
+            if (left + 1 < heapSize) frontier.add(left + 1);
+        }
+        return result;
+    }
+
+    // ====== Indeksowany kopiec ======
+
+    private void increment(String word) {
+        Integer i = index.get(word);
+        if (i == null) {
+            ensureCapacity();
+            heapWords[heapSize] = word;
+            heapCounts[heapSize] = 1;
+            index.put(word, heapSize);
+            siftUp(heapSize++);
+        } else {
+            heapCounts[i]++;
+            siftUp(i);
+        }
+    }
+
+    private void decrement(String word) {
+        int i = index.get(word);
+        if (--heapCounts[i] > 0) {
+            siftDown(i);
+            return;
+        }
+        // Licznik spadł do zera: usuń słowo (zamiana z ostatnim elementem)
+        index.remove(word);
+        int last = --heapSize;
+        if (i != last) {
+            move(last, i);
+            siftDown(i);
+            siftUp(i);
+        }
+        heapWords[last] = null;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!before(i, parent)) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= heapSize) break;
+            int best = left;
+            int right = left + 1;
+            if (right < heapSize && before(right, left)) best = right;
+            if (!before(best, i)) break;
+            swap(i, best);
+            i = best;
+        }
+    }
+
+    /** true, jeśli element i powinien być wyżej w kopcu niż j. */
+    private boolean before(int i, int j) {
+        if (heapCounts[i] != heapCounts[j]) return heapCounts[i] > heapCounts[j];
+        return heapWords[i].compareTo(heapWords[j]) < 0;
+    }
+
+    private void swap(int i, int j) {
+        String w = heapWords[i];
+        int c = heapCounts[i];
+        heapWords[i] = heapWords[j];
+        heapCounts[i] = heapCounts[j];
+        heapWords[j] = w;
+        heapCounts[j] = c;
+        index.put(heapWords[i], i);
+        index.put(heapWords[j], j);
+    }
+
+    private void move(int from, int to) {
+        heapWords[to] = heapWords[from];
+        heapCounts[to] = heapCounts[from];
+        index.put(heapWords[to], to);
+    }
+
+    private void ensureCapacity() {
+        if (heapSize == heapWords.length) {
+            heapWords = Arrays.copyOf(heapWords, heapSize * 2);
+            heapCounts = Arrays.copyOf(heapCounts, heapSize * 2);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package core;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/// StopWords — domyślna lista polskich stop-words (wspólna dla menu i trybu demona)
+public final class StopWords {
+
+    private static final String[] POLISH = {
+            "i","oraz","że","to","w","na","z","do","się","jest","nie","a","o","po","u","ten","ta","to",
+            "jak","który","która","które","te","dla","przy","albo","lub","czy","tam","tu","nad","pod",
+            "od","bez","więc","co","tak","tylko","mnie","ciebie","jego","jej","ich"
+    };
+
+    private StopWords() {}
+
+    /** Nowy, modyfikowalny zbiór polskich stop-words. */
+    public static Set<String> polish() {
+        return new HashSet<>(Arrays.asList(POLISH));
+    }
+
+    /**
+     * Stop-words w tej samej postaci, w jakiej słowa wychodzą z normalizera i tokenizera.
+     * Przy LemmatizingTokenizer słowa w tekście są już lematami ("które" -> "któr"), więc
+     * filtr porównujący je z formami z listy nic by nie odrzucał. Zbiór wynikowy zawiera
+     * formy z listy oraz ich tokeny; null zostaje null.
+     */
+    public static Set<String> asTokens(Set<String> stopWords, Normalizer normalizer, Tokenizer tokenizer) {
+        Objects.requireNonNull(normalizer, "normalizer must not be null");
+        Objects.requireNonNull(tokenizer, "tokenizer must not be null");
+        if (stopWords == null || stopWords.isEmpty()) return stopWords;
+        Set<String> result = new HashSet<>(stopWords);
+        for (String w : stopWords) {
+            result.addAll(tokenizer.words(normalizer.normalize(w)));
+        }
+        return result;
+    }
+}
@@ -1,11 +1,24 @@
 package core;
 
+import io.ChunkedTextReader;
+import io.ExternalWordSorter;
+import io.SortedWordStream;
+import metrics.MetricCollector;
+import metrics.MetricCollectors;
+import model.AnalysisResult;
+import model.MetricsReport;
+import model.Progress;
 import model.TextStats;
+import model.WindowSnapshot;
 import model.WordCount;
 import model.WordSort;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*; // Map, Set, List, Comparator, etc.
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 /// Klasa serwisowa TextAnalyzer
@@ -57,12 +70,7 @@ public class TextAnalyzer {
         List<String> words = tokenizer.words(normalized);
 
         Map<String, Integer> freq = new HashMap<>();
-        for (String w : words) {
-            if ((stopWords == null || !stopWords.contains(w))
-                    && w.length() >= Math.max(1, minWordLength)) {
-                freq.merge(w, 1, Integer::sum);
-            }
-        }
+        countInto(freq, words, stopWordsAsTokens(stopWords), minWordLength);
         return freq;
     }
 
@@ -74,6 +82,298 @@ public class TextAnalyzer {
         return wordFrequencyFromText(content, stopWords, minWordLength);
     }
 
+    /** Słowa tekstu po normalizacji i tokenizacji (bez filtrów) – ta sama ścieżka co w pozostałych metodach. */
+    public List<String> tokens(String text) {
+        return tokenizer.words(normalizer.normalize(Objects.requireNonNullElse(text, "")));
+    }
+
+    /** Częstotliwości z gotowej listy słów (np. z tokens()), z tymi samymi filtrami co wordFrequencyFromText. */
+    public Map<String, Integer> wordFrequencyFromTokens(List<String> words,
+                                                        Set<String> stopWords,
+                                                        int minWordLength) {
+        Map<String, Integer> freq = new HashMap<>();
+        countInto(freq, words, stopWordsAsTokens(stopWords), minWordLength);
+        return freq;
+    }
+
+    /** Zbiór stop-words (kopia) i jego postać tokenowa wyliczona przez StopWords.asTokens. */
+    private record StopTokens(Set<String> source, Set<String> tokens) { }
+
+    // Ostatnio przeliczony zbiór stop-words. Ta sama lista przychodzi z każdym kawałkiem, dokumentem
+    // i żądaniem demona, a przeliczenie to normalizacja i tokenizacja każdego słowa listy.
+    private volatile StopTokens stopTokens;
+
+    // Stop-words w postaci tokenów (np. lematów, gdy tokenizer lematyzuje) – patrz StopWords.asTokens.
+    // Klucz to zawartość zbioru, nie tożsamość: menu modyfikuje swój zbiór w miejscu, a demon
+    // buduje nowy przy każdym żądaniu; porównanie kilkudziesięciu słów kosztuje tyle co nic.
+    private Set<String> stopWordsAsTokens(Set<String> stopWords) {
+        if (stopWords == null || stopWords.isEmpty()) return stopWords;
+        StopTokens cached = stopTokens;
+        if (cached != null && cached.source().equals(stopWords)) return cached.tokens();
+        Set<String> tokens = Set.copyOf(StopWords.asTokens(stopWords, normalizer, tokenizer));
+        stopTokens = new StopTokens(Set.copyOf(stopWords), tokens);
+        return tokens;
+    }
+
+    /**
+     * Filtr słów wspólny dla wszystkich ścieżek liczenia (także AnalysisPipeline): słowo spoza
+     * stop-words (null = bez listy) i nie krótsze niż minWordLength (najmniej 1).
+     */
+    public static boolean passesFilter(String word, Set<String> stopWords, int minWordLength) {
+        return (stopWords == null || !stopWords.contains(word)) && word.length() >= Math.max(1, minWordLength);
+    }
+
+    // Dolicza słowa do mapy (z filtrami); zwraca liczbę wszystkich tokenów
+    private static int countInto(Map<String, Integer> freq,
+                                 List<String> words,
+                                 Set<String> stopWords,
+                                 int minWordLength) {
+        for (String w : words) {
+            if (passesFilter(w, stopWords, minWordLength)) {
+                freq.merge(w, 1, Integer::sum);
+            }
+        }
+        return words.size();
+    }
+
+    // ====== długie analizy: postęp, anulowanie, limit czasu ======
+
+    /**
+     * Podstawowe statystyki pliku czytanego kawałkami (ChunkedTextReader).
+     * Anulowanie i termin sprawdzane są między kawałkami; po przerwaniu zwracany jest wynik częściowy.
+     */
+    public AnalysisResult<TextStats> analyzeFile(String path, AnalysisControl control) throws IOException {
+        TextStats[] total = { new TextStats(0, 0, 0, 0) };
+        boolean[] openSentence = { false };
+        return runChunked(path, control, chunk -> {
+            TextStats part = analyze(chunk);
+            if (openSentence[0] && ChunkedTextReader.startsMidSentence(chunk)) {
+                part = withoutOneSentence(part);
+            }
+            openSentence[0] = ChunkedTextReader.continuesSentence(openSentence[0], chunk);
+            total[0] = total[0].plus(part);
+            return part.words();
+        }, () -> total[0]);
+    }
+
+    /** Częstotliwości słów z pliku czytanego kawałkami – z postępem, anulowaniem i terminem. */
+    public AnalysisResult<Map<String, Integer>> wordFrequencyFromFile(String path,
+                                                                      Set<String> stopWords,
+                                                                      int minWordLength,
+                                                                      AnalysisControl control) throws IOException {
+        Map<String, Integer> freq = new HashMap<>();
+        Set<String> stop = stopWordsAsTokens(stopWords);
+        return runChunked(path, control, chunk -> {
+            String normalized = normalizer.normalize(chunk);
+            return countInto(freq, tokenizer.words(normalized), stop, minWordLength);
+        }, () -> freq);
+    }
+
+    // Wspólna pętla po kawałkach: kontrola przerwania na granicy kawałka, potem przetwarzanie i postęp
+    private <T> AnalysisResult<T> runChunked(String path,
+                                             AnalysisControl control,
+                                             ToLongFunction<String> chunkHandler,
+                                             Supplier<T> result) throws IOException {
+        Objects.requireNonNull(control, "control must not be null");
+        long start = System.nanoTime();
+        long bytesDone = 0;
+        long tokens = 0;
+
+        try (ChunkedTextReader reader = new ChunkedTextReader(path)) {
+            long total = reader.totalBytes();
+            byte[] chunk;
+            while ((chunk = reader.nextChunk()) != null) {
+                if (control.token().isCancelled()) {
+                    return new AnalysisResult<>(result.get(), AnalysisResult.Status.CANCELLED, bytesDone, total);
+                }
+                if (control.deadlinePassed()) {
+                    return new AnalysisResult<>(result.get(), AnalysisResult.Status.TIMED_OUT, bytesDone, total);
+                }
+                tokens += chunkHandler.applyAsLong(ChunkedTextReader.decode(chunk));
+                bytesDone += chunk.length;
+                control.listener().onProgress(Progress.since(bytesDone, total, tokens, start));
+            }
+            return new AnalysisResult<>(result.get(), AnalysisResult.Status.COMPLETE, bytesDone, total);
+        }
+    }
+
+    // Zdanie rozcięte między kawałkami (patrz ChunkedTextReader.startsMidSentence) liczy się raz
+    private static TextStats withoutOneSentence(TextStats s) {
+        return new TextStats(s.charsWithSpaces(), s.charsWithoutSpaces(), s.words(), s.sentences() - 1);
+    }
+
+    // ====== metryki (MetricCollector) – jeden przebieg, wiele metryk ======
+
+    /**
+     * Jeden skan tekstu dla wszystkich kolektorów: znaki oryginału, a potem zdanie po zdaniu
+     * słowa po normalizacji i tokenizacji. Przy okazji liczone są podstawowe TextStats
+     * (te same wartości co analyze()), więc nie trzeba drugiego przebiegu.
+     */
+    public MetricsReport metricsFromText(String text, List<MetricCollector> collectors) {
+        Objects.requireNonNull(collectors, "collectors must not be null");
+        TextStats stats = scanMetrics(Objects.requireNonNullElse(text, ""), collectors);
+        return report(stats, collectors);
+    }
+
+    /**
+     * Metryki pliku czytanego kawałkami. Kawałki są partycjami: każdy liczony jest równolegle
+     * na własnych kopiach kolektorów (fresh()), a wyniki scalane (merge()) w kolejności pliku.
+     * Równolegle w toku jest najwyżej tyle kawałków, ile rdzeni. Kolektory z listy zawierają
+     * na koniec wynik całego pliku (albo jego przetworzonej części po przerwaniu).
+     */
+    public AnalysisResult<MetricsReport> metricsFromFile(String path,
+                                                         List<MetricCollector> collectors,
+                                                         AnalysisControl control) throws IOException {
+        Objects.requireNonNull(collectors, "collectors must not be null");
+        int maxInFlight = Math.max(1, Runtime.getRuntime().availableProcessors());
+        ArrayDeque<CompletableFuture<MetricPartition>> inFlight = new ArrayDeque<>();
+        TextStats[] total = { new TextStats(0, 0, 0, 0) };
+        boolean[] openSentence = { false };
+
+        return runChunked(path, control, chunk -> {
+            // Zdanie rozcięte między kawałkami: granice znane od razu, więc poprawka nie czeka na partycję
+            if (openSentence[0] && ChunkedTextReader.startsMidSentence(chunk)) {
+                total[0] = withoutOneSentence(total[0]);
+            }
+            openSentence[0] = ChunkedTextReader.continuesSentence(openSentence[0], chunk);
+            List<MetricCollector> partition = MetricCollectors.fresh(collectors);
+            inFlight.add(CompletableFuture.supplyAsync(
+                    () -> new MetricPartition(scanMetrics(chunk, partition), partition)));
+            long words = 0;
+            while (inFlight.size() >= maxInFlight) {
+                words += mergePartition(inFlight.poll().join(), collectors, total);
+            }
+            return words;
+        }, () -> {
+            while (!inFlight.isEmpty()) {
+                mergePartition(inFlight.poll().join(), collectors, total);
+            }
+            return report(total[0], collectors);
+        });
+    }
+
+    private record MetricPartition(TextStats stats, List<MetricCollector> collectors) { }
+
+    private static long mergePartition(MetricPartition p, List<MetricCollector> collectors, TextStats[] total) {
+        MetricCollectors.mergeInto(collectors, p.collectors());
+        total[0] = total[0].plus(p.stats());
+        return p.stats().words();
+    }
+
+    private static MetricsReport report(TextStats stats, List<MetricCollector> collectors) {
+        return new MetricsReport(stats, collectors.stream().map(MetricCollector::result).toList());
+    }
+
+    private TextStats scanMetrics(String original, List<MetricCollector> collectors) {
+        MetricCollector[] cs = collectors.toArray(new MetricCollector[0]);
+
+        int charsWithoutSpaces = 0;
+        for (int i = 0; i < original.length(); i++) {
+            char c = original.charAt(i);
+            if (!isRegexSpace(c)) charsWithoutSpaces++;
+            for (MetricCollector m : cs) m.onChar(c);
+        }
+
+        // Zdanie po zdaniu – normalizer zamienia interpunkcję (w tym .!?) na spacje,
+        // więc suma słów ze zdań jest taka sama jak z tokenizacji całego tekstu
+        List<String> sentences = sentenceTokenizer.sentences(original);
+        int words = 0;
+        for (String sentence : sentences) {
+            List<String> tokens = tokenizer.words(normalizer.normalize(sentence));
+            for (String t : tokens) {
+                for (MetricCollector m : cs) m.onToken(t);
+            }
+            for (MetricCollector m : cs) m.onSentence(tokens.size());
+            words += tokens.size();
+        }
+        return new TextStats(original.length(), charsWithoutSpaces, words, sentences.size());
+    }
+
+    // Ten sam zbiór co \s w analyze() (replaceAll("\\s+", ""))
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Częstotliwości w tablicy poza stertą (OffHeapFrequencyTable) – dla bardzo dużych słowników,
+     * przy których HashMap powoduje długie pauzy GC. Wywołujący musi zamknąć wynik (try-with-resources).
+     * Słowa trafiają do tablicy porcjami, więc lista wszystkich słów nigdy nie powstaje na stercie.
+     */
+    public OffHeapFrequencyTable wordFrequencyOffHeapFromText(String text,
+                                                              Set<String> stopWords,
+                                                              int minWordLength) {
+        OffHeapFrequencyTable freq = new OffHeapFrequencyTable();
+        Set<String> stop = stopWordsAsTokens(stopWords);
+        try {
+            forEachTokenBatch(Objects.requireNonNullElse(text, ""),
+                    words -> incrementAll(freq, words, stop, minWordLength));
+        } catch (IOException e) {
+            throw new AssertionError(e); // porcje z pamięci nie rzucają IOException
+        } catch (RuntimeException e) {
+            freq.close();
+            throw e;
+        }
+        return freq;
+    }
+
+    /** Wersja plikowa wordFrequencyOffHeapFromText – plik czytany kawałkami (ChunkedTextReader). */
+    public OffHeapFrequencyTable wordFrequencyOffHeapFromFile(String path,
+                                                              Set<String> stopWords,
+                                                              int minWordLength) throws IOException {
+        OffHeapFrequencyTable freq = new OffHeapFrequencyTable();
+        Set<String> stop = stopWordsAsTokens(stopWords);
+        try {
+            forEachTokenBatchFromFile(path, words -> incrementAll(freq, words, stop, minWordLength));
+        } catch (IOException | RuntimeException e) {
+            freq.close();
+            throw e;
+        }
+        return freq;
+    }
+
+    private static void incrementAll(OffHeapFrequencyTable freq,
+                                     List<String> words,
+                                     Set<String> stopWords,
+                                     int minWordLength) {
+        for (String w : words) {
+            if (passesFilter(w, stopWords, minWordLength)) {
+                freq.increment(w);
+            }
+        }
+    }
+
+    // ====== słowa porcjami (bez listy wszystkich słów naraz) ======
+
+    // Rozmiar porcji tekstu w znakach przy forEachTokenBatch
+    private static final int TOKEN_BATCH_CHARS = 1 << 20;
+
+    /** Odbiorca kolejnej porcji słów. */
+    @FunctionalInterface
+    private interface TokenBatchHandler {
+        void accept(List<String> words) throws IOException;
+    }
+
+    // Tekst cięty na białych znakach co ok. TOKEN_BATCH_CHARS; normalizer zamienia interpunkcję
+    // na spacje, a tokenizer dzieli po białych znakach, więc porcje dają te same słowa co całość
+    private void forEachTokenBatch(String text, TokenBatchHandler handler) throws IOException {
+        int from = 0;
+        while (from < text.length()) {
+            int to = Math.min(text.length(), from + TOKEN_BATCH_CHARS);
+            while (to < text.length() && !Character.isWhitespace(text.charAt(to))) to++;
+            handler.accept(tokens(text.substring(from, to)));
+            from = to;
+        }
+    }
+
+    private void forEachTokenBatchFromFile(String path, TokenBatchHandler handler) throws IOException {
+        try (ChunkedTextReader reader = new ChunkedTextReader(path)) {
+            byte[] chunk;
+            while ((chunk = reader.nextChunk()) != null) {
+                handler.accept(tokens(ChunkedTextReader.decode(chunk)));
+            }
+        }
+    }
+
     /**
      * do tego miejsca
      */
@@ -103,7 +403,13 @@ public class TextAnalyzer {
                                             int minWordLength,
                                             WordSort sortMode) {
         Map<String, Integer> freq = wordFrequencyFromText(text, stopWords, minWordLength);
+        return topWordsFromFrequency(freq, topN, sortMode);
+    }
 
+    /** Top N z gotowej mapy częstotliwości (np. wyniku częściowego przerwanej analizy). */
+    public List<WordCount> topWordsFromFrequency(Map<String, Integer> freq,
+                                                 int topN,
+                                                 WordSort sortMode) {
         return freq.entrySet().stream()
                 .map(e -> new WordCount(e.getKey(), e.getValue()))
                 .sorted(sortMode.comparator())
@@ -111,17 +417,20 @@ public class TextAnalyzer {
                 .collect(Collectors.toList());
     }
 
-    /** Pełna lista posortowana wg WordSort (bez limitu). */
+    /**
+     * Pełna lista posortowana wg WordSort (bez limitu). Liczenie i sortowanie idzie przez ExternalWordSorter,
+     * więc ponad jego budżet słownik schodzi na dysk – w pamięci zostaje tylko wynikowa lista.
+     */
     public List<WordCount> allWordsFromTextSorted(String text,
                                                   Set<String> stopWords,
                                                   int minWordLength,
                                                   WordSort sortMode) {
-        Map<String, Integer> freq = wordFrequencyFromText(text, stopWords, minWordLength);
-
-        return freq.entrySet().stream()
-                .map(e -> new WordCount(e.getKey(), e.getValue()))
-                .sorted(sortMode.comparator())
-                .collect(Collectors.toList());
+        try (SortedWordStream sorted = wordFrequencySortedExternal(
+                text, stopWords, minWordLength, sortMode, new ExternalWordSorter())) {
+            return sorted.toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // tylko przy zrzucie przebiegów na dysk
+        }
     }
 
     /** Wersja plikowa z WordSort. */
@@ -139,11 +448,7 @@ public class TextAnalyzer {
                                                     Set<String> stopWords,
                                                     int minWordLength,
                                                     WordSort sortMode) {
-        Map<String, Integer> freq = wordFrequencyFromText(text, stopWords, minWordLength);
-
-        return freq.entrySet().stream()
-                .map(e -> new WordCount(e.getKey(), e.getValue()))
-                .sorted(sortMode.comparator())
+        return allWordsFromTextSorted(text, stopWords, minWordLength, sortMode).stream()
                 .collect(Collectors.toMap(
                         WordCount::word,
                         WordCount::count,
@@ -151,4 +456,179 @@ public class TextAnalyzer {
                         LinkedHashMap::new
                 ));
     }
+
+    // ====== sortowanie zewnętrzne (słowniki większe niż sterta) ======
+
+    /**
+     * Częstotliwości posortowane wg WordSort, ze zrzutem na dysk po przekroczeniu budżetu sortera.
+     * Słowa trafiają do sortera porcjami (bez listy wszystkich słów naraz).
+     * Wynik jest strumieniem jednorazowym – zamknij go po użyciu (usuwa pliki tymczasowe).
+     * Można go przekazać wprost do ReportWriter.writeSortedWordFrequency.
+     */
+    public SortedWordStream wordFrequencySortedExternal(String text,
+                                                        Set<String> stopWords,
+                                                        int minWordLength,
+                                                        WordSort sortMode,
+                                                        ExternalWordSorter sorter) throws IOException {
+        Set<String> stop = stopWordsAsTokens(stopWords);
+        try (ExternalWordSorter.WordCounter counter = sorter.newCounter()) {
+            forEachTokenBatch(Objects.requireNonNullElse(text, ""),
+                    words -> addAll(counter, words, stop, minWordLength));
+            return counter.finish(sortMode);
+        }
+    }
+
+    /** Wersja plikowa wordFrequencySortedExternal – plik czytany kawałkami, więc nie musi mieścić się w pamięci. */
+    public SortedWordStream wordFrequencySortedExternalFromFile(String path,
+                                                                Set<String> stopWords,
+                                                                int minWordLength,
+                                                                WordSort sortMode,
+                                                                ExternalWordSorter sorter) throws IOException {
+        Set<String> stop = stopWordsAsTokens(stopWords);
+        try (ExternalWordSorter.WordCounter counter = sorter.newCounter()) {
+            forEachTokenBatchFromFile(path, words -> addAll(counter, words, stop, minWordLength));
+            return counter.finish(sortMode);
+        }
+    }
+
+    /**
+     * wordFrequencySortedExternalFromFile z postępem, anulowaniem i terminem. Słownik zostaje w pamięci,
+     * dopóki mieści się w budżecie sortera, i dopiero potem schodzi na dysk. Przy przerwaniu strumień
+     * zawiera posortowane częstotliwości przetworzonej części pliku; zamknij go w każdym przypadku.
+     */
+    public AnalysisResult<SortedWordStream> wordFrequencySortedExternalFromFile(String path,
+                                                                                Set<String> stopWords,
+                                                                                int minWordLength,
+                                                                                WordSort sortMode,
+                                                                                ExternalWordSorter sorter,
+                                                                                AnalysisControl control) throws IOException {
+        Set<String> stop = stopWordsAsTokens(stopWords);
+        try (ExternalWordSorter.WordCounter counter = sorter.newCounter()) {
+            AnalysisResult<ExternalWordSorter.WordCounter> counted;
+            try {
+                counted = runChunked(path, control, chunk -> {
+                    List<String> words = tokens(chunk);
+                    try {
+                        addAll(counter, words, stop, minWordLength);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // ToLongFunction nie rzuca IOException
+                    }
+                    return words.size();
+                }, () -> counter);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return new AnalysisResult<>(counter.finish(sortMode),
+                    counted.status(), counted.bytesProcessed(), counted.totalBytes());
+        }
+    }
+
+    private static void addAll(ExternalWordSorter.WordCounter counter,
+                               List<String> words,
+                               Set<String> stopWords,
+                               int minWordLength) throws IOException {
+        for (String w : words) {
+            if (passesFilter(w, stopWords, minWordLength)) {
+                counter.add(w);
+            }
+        }
+    }
+
+    // ====== okno przesuwne ======
+
+    /**
+     * Top N słów w oknie przesuwnym: okno windowSize tokenów, przesuwane co step tokenów.
+     * Liczniki są aktualizowane przyrostowo (SlidingWindowTopN), zamiast liczyć każde okno od nowa.
+     */
+    public List<WindowSnapshot> slidingTopWordsFromText(String text,
+                                                        int windowSize,
+                                                        int step,
+                                                        int topN,
+                                                        Set<String> stopWords,
+                                                        int minWordLength) {
+        String normalized = normalizer.normalize(Objects.requireNonNullElse(text, ""));
+        List<String> words = tokenizer.words(normalized);
+
+        Set<String> stop = stopWordsAsTokens(stopWords);
+        SlidingWindowTopN window = new SlidingWindowTopN(windowSize, step, topN);
+        for (String w : words) {
+            boolean counted = passesFilter(w, stop, minWordLength);
+            window.accept(counted ? w : null);
+        }
+        return window.finish();
+    }
+
+    /**
+     * Okno przesuwne nad plikiem czytanym kawałkami – z postępem, anulowaniem i terminem.
+     * Tokeny płyną do okna kawałek po kawałku; po przerwaniu wynik zawiera okna z przetworzonej części.
+     */
+    public AnalysisResult<List<WindowSnapshot>> slidingTopWordsFromFile(String path,
+                                                                        int windowSize,
+                                                                        int step,
+                                                                        int topN,
+                                                                        Set<String> stopWords,
+                                                                        int minWordLength,
+                                                                        AnalysisControl control) throws IOException {
+        Set<String> stop = stopWordsAsTokens(stopWords);
+        SlidingWindowTopN window = new SlidingWindowTopN(windowSize, step, topN);
+        return runChunked(path, control, chunk -> {
+            List<String> words = tokens(chunk);
+            for (String w : words) {
+                boolean counted = passesFilter(w, stop, minWordLength);
+                window.accept(counted ? w : null);
+            }
+            return words.size();
+        }, window::finish);
+    }
+
+    /** Wersja plikowa slidingTopWordsFromText. */
+    public List<WindowSnapshot> slidingTopWordsFromFile(String path,
+                                                        int windowSize,
+                                                        int step,
+                                                        int topN,
+                                                        Set<String> stopWords,
+                                                        int minWordLength) throws IOException {
+        String content = io.FileUtil.readFileToString(path);
+        return slidingTopWordsFromText(content, windowSize, step, topN, stopWords, minWordLength);
+    }
+
+    /**
+     * Słownik posortowany po słowie w porządku naturalnym String (compareTo).
+     * Porządek jest totalny i zgodny z equals, więc nadaje się do złączeń (merge-join)
+     * dwóch słowników – w przeciwieństwie do Collatora PL, który utożsamia np. „zal” i „żal”.
+     */
+    public List<WordCount> sortedVocabularyFromText(String text,
+                                                    Set<String> stopWords,
+                                                    int minWordLength) {
+        Map<String, Integer> freq = wordFrequencyFromText(text, stopWords, minWordLength);
+
+        List<WordCount> vocabulary = new ArrayList<>(freq.size());
+        for (Map.Entry<String, Integer> e : freq.entrySet()) {
+            vocabulary.add(new WordCount(e.getKey(), e.getValue()));
+        }
+        vocabulary.sort(Comparator.comparing(WordCount::word));
+        return vocabulary;
+    }
+
+    /** Słownik posortowany po słowie z pliku czytanego kawałkami – z postępem, anulowaniem i terminem. */
+    public AnalysisResult<List<WordCount>> sortedVocabularyFromFile(String path,
+                                                                    Set<String> stopWords,
+                                                                    int minWordLength,
+                                                                    AnalysisControl control) throws IOException {
+        AnalysisResult<Map<String, Integer>> freq = wordFrequencyFromFile(path, stopWords, minWordLength, control);
+        List<WordCount> vocabulary = new ArrayList<>(freq.value().size());
+        for (Map.Entry<String, Integer> e : freq.value().entrySet()) {
+            vocabulary.add(new WordCount(e.getKey(), e.getValue()));
+        }
+        vocabulary.sort(Comparator.comparing(WordCount::word));
+        return new AnalysisResult<>(vocabulary, freq.status(), freq.bytesProcessed(), freq.totalBytes());
+    }
+
+    /** Wersja plikowa sortedVocabularyFromText. */
+    public List<WordCount> sortedVocabularyFromFile(String path,
+                                                    Set<String> stopWords,
+                                                    int minWordLength) throws IOException {
+        String content = io.FileUtil.readFileToString(path);
+        return sortedVocabularyFromText(content, stopWords, minWordLength);
+    }
 }
@@ -0,0 +1,214 @@
+package daemon;
+
+import core.TextAnalyzer;
+import model.WordSort;
+
+import java.io.*; // BufferedReader, BufferedWriter, InputStreamReader, OutputStreamWriter, IOException, UncheckedIOException
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.*; // Channels, ClosedChannelException, ServerSocketChannel, SocketChannel
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*; // Files, LinkOption, Path
+import java.nio.file.attribute.*; // PosixFilePermission, PosixFilePermissions, UserPrincipal
+import java.util.*; // Arrays, List, Objects, Set
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/// AnalyzerDaemon — długo żyjący proces z "rozgrzanym" TextAnalyzerem, nasłuchujący na gnieździe Unix
+///
+/// Przy tysiącach wywołań na małych plikach większość czasu zjada start JVM i rozgrzewka
+/// (ładowanie Collatora, kompilacja wyrażeń regularnych, JIT). Demon płaci ten koszt raz;
+/// klient (DaemonClient / TextApp --client) tylko przekazuje argumenty i odbiera wynik.
+///
+/// Protokół tekstowy (UTF-8), jedno polecenie na połączenie:
+///   żądanie:   katalog_roboczy \t arg1 \t arg2 ... \n
+///   odpowiedź: linie "O tekst" (stdout) lub "E tekst" (stderr), na końcu "X kod_wyjścia"
+/// Dzięki temu z demonem da się rozmawiać także bez JVM, np.: printf '/tmp\tping\n' | nc -U gniazdo
+///
+/// Polecenie "shutdown" zatrzymuje demona.
+///
+/// Demon czyta i zapisuje pliki z uprawnieniami swojego właściciela, więc gniazdo nie może być
+/// dostępne dla innych użytkowników: domyślnie leży w prywatnym katalogu ($XDG_RUNTIME_DIR albo
+/// katalog 0700 w katalogu tymczasowym), a samo gniazdo dostaje prawa 0600 przed przyjęciem
+/// pierwszego połączenia.
+
+public class AnalyzerDaemon implements AutoCloseable {
+
+    private final Path socket;
+    private final TextAnalyzer analyzer;
+    private final CommandRunner runner;
+    private final ExecutorService handlers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile ServerSocketChannel server;
+    private volatile boolean running;
+
+    public AnalyzerDaemon(TextAnalyzer analyzer, Path socket) {
+        this.analyzer = Objects.requireNonNull(analyzer, "analyzer must not be null");
+        this.socket = Objects.requireNonNull(socket, "socket must not be null");
+        this.runner = new CommandRunner(analyzer);
+    }
+
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIR = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> OWNER_ONLY_SOCKET = PosixFilePermissions.fromString("rw-------");
+
+    /**
+     * Domyślna ścieżka gniazda w katalogu prywatnym dla użytkownika: $XDG_RUNTIME_DIR (tworzony
+     * przez system z prawami 0700), a bez niego katalog oldanalyze-użytkownik w katalogu tymczasowym.
+     */
+    public static Path defaultSocket() {
+        String runtime = System.getenv("XDG_RUNTIME_DIR");
+        if (runtime != null && !runtime.isBlank() && Files.isDirectory(Path.of(runtime))) {
+            return Path.of(runtime, "oldanalyze.sock");
+        }
+        return Path.of(System.getProperty("java.io.tmpdir"), "oldanalyze-" + System.getProperty("user.name"), "daemon.sock");
+    }
+
+    /** Otwiera gniazdo, rozgrzewa analizator i obsługuje połączenia aż do shutdown/close(). */
+    public void serve() throws IOException {
+        if (socket.equals(defaultSocket())) {
+            ensurePrivateDirectory(socket.toAbsolutePath().getParent());
+        }
+        if (Files.exists(socket)) {
+            if (isAlive(socket)) {
+                throw new IOException("daemon already listening on " + socket);
+            }
+            Files.delete(socket); // pozostałość po demonie, który nie posprzątał
+        }
+        server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socket));
+        restrictToOwner(socket, OWNER_ONLY_SOCKET);
+        warmUp();
+        running = true;
+
+        while (running) {
+            SocketChannel client;
+            try {
+                client = server.accept();
+            } catch (ClosedChannelException e) {
+                break;
+            }
+            handlers.submit(() -> handle(client));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        ServerSocketChannel s = server;
+        if (s != null) s.close();
+        handlers.shutdown();
+        Files.deleteIfExists(socket);
+    }
+
+    /** true, jeśli pod ścieżką nasłuchuje działający demon. */
+    static boolean isAlive(Path socket) {
+        try (SocketChannel ch = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            return ch.isConnected();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // ====== Implementacja ======
+
+    // Katalog domyślnego gniazda: tworzony z prawami 0700; istniejący musi należeć do nas i nie
+    // może być dostępny dla innych (inaczej ktoś mógłby podmienić gniazdo albo się do niego dostać)
+    private static void ensurePrivateDirectory(Path dir) throws IOException {
+        if (!Files.exists(dir, LinkOption.NOFOLLOW_LINKS)) {
+            if (posix(dir.getParent())) {
+                Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIR));
+            } else {
+                Files.createDirectories(dir);
+            }
+        }
+        if (!Files.isDirectory(dir, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException("socket directory is not a directory: " + dir);
+        }
+        if (!posix(dir)) return;
+        UserPrincipal owner = Files.getOwner(dir, LinkOption.NOFOLLOW_LINKS);
+        String me = System.getProperty("user.name");
+        if (!owner.getName().equals(me)) {
+            throw new IOException("socket directory " + dir + " belongs to " + owner.getName() + ", not " + me);
+        }
+        Set<PosixFilePermission> perms = Files.getPosixFilePermissions(dir, LinkOption.NOFOLLOW_LINKS);
+        if (!OWNER_ONLY_DIR.containsAll(perms)) {
+            throw new IOException("socket directory " + dir + " is accessible to other users ("
+                    + PosixFilePermissions.toString(perms) + "); expected rwx------");
+        }
+    }
+
+    private static void restrictToOwner(Path path, Set<PosixFilePermission> perms) throws IOException {
+        if (posix(path)) {
+            Files.setPosixFilePermissions(path, perms);
+        }
+    }
+
+    // Systemy bez uprawnień POSIX (Windows) – ochrona zależy wtedy od ACL katalogu
+    private static boolean posix(Path path) {
+        Path p = path != null ? path : Path.of("");
+        return p.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    private void handle(SocketChannel client) {
+        try (client;
+             BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(client), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(client), StandardCharsets.UTF_8))) {
+
+            String request = in.readLine();
+            if (request == null) return;
+            List<String> parts = Arrays.asList(request.split("\t", -1));
+            Path cwd = Path.of(parts.get(0));
+            List<String> args = parts.subList(1, parts.size());
+
+            if (args.size() == 1 && args.get(0).equals("shutdown")) {
+                writeLine(out, 'O', "Demon zatrzymany.");
+                out.write("X 0\n");
+                out.flush();
+                close();
+                return;
+            }
+
+            int code = runner.run(cwd, args, new CommandRunner.Output() {
+                @Override
+                public void out(String line) {
+                    writeLine(out, 'O', line);
+                }
+
+                @Override
+                public void err(String line) {
+                    writeLine(out, 'E', line);
+                }
+            });
+            out.write("X " + code + "\n");
+            out.flush();
+        } catch (IOException | UncheckedIOException e) {
+            // klient rozłączył się w trakcie – nic do zrobienia
+        }
+    }
+
+    private static void writeLine(BufferedWriter out, char stream, String text) {
+        try {
+            // Jedna linia protokołu na linię tekstu
+            for (String line : text.split("\\R", -1)) {
+                out.write(stream);
+                out.write(' ');
+                out.write(line);
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Kilka przebiegów na próbce: ładuje Collator PL, kompiluje wyrażenia regularne, rozgrzewa JIT
+    private void warmUp() {
+        String sample = "Ala ma kota, a kot ma Alę. Dom stoi nad rzeką! Czy żółć gęśla jaźń? "
+                .repeat(200);
+        for (int i = 0; i < 50; i++) {
+            analyzer.analyze(sample);
+            for (WordSort sort : WordSort.values()) {
+                analyzer.topWordsFromText(sample, 10, null, 1, sort);
+            }
+        }
+    }
+}
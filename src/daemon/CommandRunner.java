@@ -0,0 +1,198 @@
+package daemon;
+
+import core.CorpusComparator;
+import core.StopWords;
+import core.TextAnalyzer;
+import io.ExternalWordSorter;
+import io.SortedWordStream;
+import model.CorpusComparison;
+import model.KeywordScore;
+import model.TextStats;
+import model.WordCount;
+import model.WordSort;
+import util.ReportWriter;
+import util.ReportWriter.Format;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*; // List, Locale, Objects, Set
+
+/// CommandRunner — nieinteraktywne polecenia analizatora (dla demona i klienta)
+///
+/// Składnia:  [--min N] [--stop] <polecenie> [argumenty...]
+///   ping                                   – test połączenia
+///   stats   <plik>                         – podstawowe statystyki
+///   top     <plik> [N] [alpha|freq-desc|freq-asc]
+///   freq    <plik> [limit]                 – częstotliwości malejąco
+///   compare <plikA> <plikB> [K]            – słowa charakterystyczne
+///   save    <basic|full|freq> <plik> <wyjście> [csv|txt|json|xml]
+///
+/// Względne ścieżki rozwiązywane są względem katalogu roboczego klienta.
+
+class CommandRunner {
+
+    /** Odbiorca linii wyniku (stdout / stderr klienta). */
+    interface Output {
+        void out(String line);
+        void err(String line);
+    }
+
+    static final int OK = 0;
+    static final int ERROR = 1;
+    static final int USAGE = 2;
+
+    private final TextAnalyzer analyzer;
+    private final ExternalWordSorter sorter = new ExternalWordSorter();
+
+    CommandRunner(TextAnalyzer analyzer) {
+        this.analyzer = Objects.requireNonNull(analyzer, "analyzer must not be null");
+    }
+
+    /** Wykonuje polecenie; zwraca kod wyjścia dla klienta. */
+    int run(Path cwd, List<String> args, Output output) {
+        int minWordLength = 2;
+        Set<String> stopWords = null;
+
+        int i = 0;
+        while (i < args.size() && args.get(i).startsWith("--")) {
+            switch (args.get(i)) {
+                case "--min" -> {
+                    if (i + 1 >= args.size()) return usage(output, "--min wymaga liczby");
+                    minWordLength = parseInt(args.get(++i), minWordLength);
+                }
+                case "--stop" -> stopWords = StopWords.polish();
+                default -> {
+                    return usage(output, "nieznana opcja: " + args.get(i));
+                }
+            }
+            i++;
+        }
+        if (i >= args.size()) return usage(output, "brak polecenia");
+
+        String command = args.get(i);
+        List<String> rest = args.subList(i + 1, args.size());
+        try {
+            return switch (command) {
+                case "ping" -> {
+                    output.out("pong");
+                    yield OK;
+                }
+                case "stats" -> stats(cwd, rest, output);
+                case "top" -> top(cwd, rest, stopWords, minWordLength, output);
+                case "freq" -> freq(cwd, rest, stopWords, minWordLength, output);
+                case "compare" -> compare(cwd, rest, stopWords, minWordLength, output);
+                case "save" -> save(cwd, rest, stopWords, minWordLength, output);
+                default -> usage(output, "nieznane polecenie: " + command);
+            };
+        } catch (Exception e) {
+            output.err("Błąd: " + e.getMessage());
+            return ERROR;
+        }
+    }
+
+    // ====== Polecenia ======
+
+    private int stats(Path cwd, List<String> a, Output output) throws Exception {
+        if (a.isEmpty()) return usage(output, "stats <plik>");
+        TextStats s = analyzer.analyzeFile(resolve(cwd, a.get(0)));
+        output.out("Słowa: " + s.words());
+        output.out("Znaki (ze spacjami): " + s.charsWithSpaces());
+        output.out("Znaki (bez spacji): " + s.charsWithoutSpaces());
+        output.out("Zdania: " + s.sentences());
+        return OK;
+    }
+
+    private int top(Path cwd, List<String> a, Set<String> stopWords, int minLen, Output output) throws Exception {
+        if (a.isEmpty()) return usage(output, "top <plik> [N] [alpha|freq-desc|freq-asc]");
+        int n = a.size() > 1 ? parseInt(a.get(1), 20) : 20;
+        WordSort sort = a.size() > 2 ? parseSort(a.get(2)) : WordSort.FREQUENCY_DESC;
+        for (WordCount wc : analyzer.topWordsFromFile(resolve(cwd, a.get(0)), n, stopWords, minLen, sort)) {
+            output.out(String.format("%-20s : %d", wc.word(), wc.count()));
+        }
+        return OK;
+    }
+
+    private int freq(Path cwd, List<String> a, Set<String> stopWords, int minLen, Output output) throws Exception {
+        if (a.isEmpty()) return usage(output, "freq <plik> [limit]");
+        int limit = a.size() > 1 ? parseInt(a.get(1), Integer.MAX_VALUE) : Integer.MAX_VALUE;
+        try (SortedWordStream freq = sortedFrequency(resolve(cwd, a.get(0)), stopWords, minLen)) {
+            int shown = 0;
+            for (WordCount wc : freq) {
+                if (shown++ == limit) break;
+                output.out(String.format("%-20s : %d", wc.word(), wc.count()));
+            }
+        }
+        return OK;
+    }
+
+    private int compare(Path cwd, List<String> a, Set<String> stopWords, int minLen, Output output) throws Exception {
+        if (a.size() < 2) return usage(output, "compare <plikA> <plikB> [K]");
+        int k = a.size() > 2 ? parseInt(a.get(2), 20) : 20;
+        CorpusComparison cmp = new CorpusComparator(analyzer).compareFiles(
+                resolve(cwd, a.get(0)), resolve(cwd, a.get(1)), stopWords, minLen, k);
+        output.out("--- Charakterystyczne dla A ---");
+        for (KeywordScore s : cmp.topA()) {
+            output.out(String.format(Locale.ROOT, "%-20s : A=%d B=%d LL=%.2f", s.word(), s.countA(), s.countB(), s.logLikelihood()));
+        }
+        output.out("--- Charakterystyczne dla B ---");
+        for (KeywordScore s : cmp.topB()) {
+            output.out(String.format(Locale.ROOT, "%-20s : A=%d B=%d LL=%.2f", s.word(), s.countA(), s.countB(), s.logLikelihood()));
+        }
+        return OK;
+    }
+
+    private int save(Path cwd, List<String> a, Set<String> stopWords, int minLen, Output output) throws Exception {
+        if (a.size() < 3) return usage(output, "save <basic|full|freq> <plik> <wyjście> [csv|txt|json|xml]");
+        String in = resolve(cwd, a.get(1));
+        Path out = cwd.resolve(a.get(2));
+        Format format = a.size() > 3 ? Format.valueOf(a.get(3).toUpperCase(Locale.ROOT)) : Format.JSON;
+        switch (a.get(0)) {
+            case "basic" -> ReportWriter.writeBasicStats(analyzer.analyzeFile(in), out, format);
+            case "full" -> ReportWriter.writeFullStats(analyzer.analyzeFile(in),
+                    analyzer.wordFrequencyFromFile(in, stopWords, minLen), out, format);
+            case "freq" -> {
+                try (SortedWordStream freq = sortedFrequency(in, stopWords, minLen)) {
+                    ReportWriter.writeSortedWordFrequency(freq, out, format);
+                }
+            }
+            default -> {
+                return usage(output, "nieznany raport: " + a.get(0));
+            }
+        }
+        output.out("Zapisano: " + out.toAbsolutePath());
+        return OK;
+    }
+
+    // ====== Pomocnicze ======
+
+    // Częstotliwości malejąco; słownik większy niż budżet sortera schodzi na dysk (zamknij strumień)
+    private SortedWordStream sortedFrequency(String file, Set<String> stopWords, int minLen) throws IOException {
+        return analyzer.wordFrequencySortedExternalFromFile(file, stopWords, minLen, WordSort.FREQUENCY_DESC, sorter);
+    }
+
+    private static String resolve(Path cwd, String file) {
+        return cwd.resolve(file).toString();
+    }
+
+    private static WordSort parseSort(String s) {
+        return switch (s.toLowerCase(Locale.ROOT)) {
+            case "alpha" -> WordSort.ALPHABETIC;
+            case "freq-asc", "asc" -> WordSort.FREQUENCY_ASC;
+            default -> WordSort.FREQUENCY_DESC;
+        };
+    }
+
+    private static int parseInt(String s, int fallback) {
+        try {
+            int v = Integer.parseInt(s.trim());
+            return v > 0 ? v : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static int usage(Output output, String message) {
+        output.err("Użycie: " + message);
+        return USAGE;
+    }
+}
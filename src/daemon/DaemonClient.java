@@ -0,0 +1,55 @@
+package daemon;
+
+import java.io.*; // BufferedReader, BufferedWriter, InputStreamReader, OutputStreamWriter, IOException, PrintStream
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+/// DaemonClient — cienki klient AnalyzerDaemon: przekazuje argumenty i przepisuje odpowiedź na stdout/stderr
+public final class DaemonClient {
+
+    private DaemonClient() {}
+
+    /**
+     * Wysyła polecenie do demona i strumieniowo wypisuje wynik.
+     *
+     * @return kod wyjścia polecenia (zwrócony przez demona)
+     * @throws IOException gdy demon nie działa albo zerwał połączenie
+     */
+    public static int run(Path socket, List<String> args, PrintStream out, PrintStream err) throws IOException {
+        for (String a : args) {
+            if (a.indexOf('\t') >= 0 || a.indexOf('\n') >= 0 || a.indexOf('\r') >= 0) {
+                throw new IllegalArgumentException("argument must not contain tabs or line breaks: " + a);
+            }
+        }
+        String cwd = Path.of("").toAbsolutePath().toString();
+
+        try (SocketChannel ch = SocketChannel.open(UnixDomainSocketAddress.of(socket));
+             BufferedWriter w = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(ch), StandardCharsets.UTF_8));
+             BufferedReader r = new BufferedReader(new InputStreamReader(Channels.newInputStream(ch), StandardCharsets.UTF_8))) {
+
+            w.write(cwd);
+            for (String a : args) {
+                w.write('\t');
+                w.write(a);
+            }
+            w.write('\n');
+            w.flush();
+
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (line.startsWith("O ")) {
+                    out.println(line.substring(2));
+                } else if (line.startsWith("E ")) {
+                    err.println(line.substring(2));
+                } else if (line.startsWith("X ")) {
+                    return Integer.parseInt(line.substring(2).trim());
+                }
+            }
+        }
+        throw new IOException("daemon closed the connection before sending an exit code");
+    }
+}
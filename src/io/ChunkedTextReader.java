@@ -0,0 +1,135 @@
+package io;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Czytanie pliku kawałkami (domyślnie po 1 MiB) zamiast wczytywania całości do jednego Stringa.
+ *
+ * Kawałek jest ucinany za ostatnim końcem zdania (. ! ?), a gdy go brak – za ostatnim białym znakiem,
+ * więc słowa (i zwykle zdania) nie są rozcinane między kawałkami. Resztę dokleja się na początek
+ * następnego kawałka. Dekodowanie (UTF-8) jest takie samo jak w FileUtil.readFileToString, więc
+ * analiza kawałkami i analiza całego pliku widzą ten sam tekst.
+ */
+public class ChunkedTextReader implements AutoCloseable {
+
+    /** Domyślny rozmiar kawałka w bajtach. */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final InputStream input;
+    private final long totalBytes;
+    private final int chunkSize;
+
+    private byte[] carry = new byte[0];
+    private long bytesRead;
+    private boolean eof;
+
+    public ChunkedTextReader(String path) throws IOException {
+        this(path, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedTextReader(String path, int chunkSize) throws IOException {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be >= 1");
+        this.input = new FileInputStream(path);
+        this.totalBytes = java.nio.file.Files.size(java.nio.file.Path.of(path));
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Zwraca kolejny kawałek surowych bajtów albo null na końcu pliku.
+     * Ostatni kawałek zawiera wszystko, co zostało (bez szukania granicy).
+     */
+    public byte[] nextChunk() throws IOException {
+        if (eof && carry.length == 0) return null;
+
+        byte[] buf = Arrays.copyOf(carry, carry.length + chunkSize);
+        int filled = carry.length;
+        while (!eof && filled < buf.length) {
+            int n = input.read(buf, filled, buf.length - filled);
+            if (n < 0) {
+                eof = true;
+            } else {
+                filled += n;
+                bytesRead += n;
+            }
+        }
+
+        int cut = eof ? filled : boundary(buf, filled);
+        carry = Arrays.copyOfRange(buf, cut, filled);
+        return cut == buf.length ? buf : Arrays.copyOf(buf, cut);
+    }
+
+    /**
+     * Dekoduje kawałek jako UTF-8, tak samo jak FileUtil. Kawałki kończą się na bajcie ASCII
+     * (koniec zdania lub biały znak), a cięcie na sztywno cofa się do początku znaku, więc znaki
+     * wielobajtowe nigdy nie są rozcinane.
+     */
+    public static String decode(byte[] chunk) {
+        return new String(chunk, StandardCharsets.UTF_8);
+    }
+
+    // ====== zdania na granicy kawałków ======
+    // Kawałek bez końca zdania jest ucinany na białym znaku, więc zdanie może zacząć się w jednym
+    // kawałku, a skończyć w następnym; liczone osobno w obu dałoby jedno zdanie za dużo.
+
+    /** true, jeśli tekst zaczyna się w środku zdania (pierwszy niebiały znak nie jest końcem zdania .!?). */
+    public static boolean startsMidSentence(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c > ' ') return !isSentenceEnd(c); // > ' ' – tak jak trim() w DefaultSentenceTokenizer
+        }
+        return false;
+    }
+
+    /**
+     * Stan po kawałku: czy ostatnie zdanie jest wciąż otwarte.
+     * @param open stan przed kawałkiem (pusty kawałek go nie zmienia)
+     */
+    public static boolean continuesSentence(boolean open, String chunk) {
+        for (int i = chunk.length() - 1; i >= 0; i--) {
+            char c = chunk.charAt(i);
+            if (c > ' ') return !isSentenceEnd(c);
+        }
+        return open;
+    }
+
+    private static boolean isSentenceEnd(char c) {
+        return c == '.' || c == '!' || c == '?';
+    }
+
+    /** Wczytane dotąd bajty (łącznie z resztą czekającą na następny kawałek). */
+    public long bytesRead() {
+        return bytesRead;
+    }
+
+    /** Rozmiar pliku w bajtach. */
+    public long totalBytes() {
+        return totalBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    // Pozycja tuż za ostatnim końcem zdania, a w drugiej kolejności za ostatnim białym znakiem
+    private static int boundary(byte[] buf, int length) {
+        int lastSpace = -1;
+        for (int i = length - 1; i >= 0; i--) {
+            byte b = buf[i];
+            if (b == '.' || b == '!' || b == '?') return i + 1;
+            if (lastSpace < 0 && (b == ' ' || b == '\n' || b == '\r' || b == '\t')) lastSpace = i + 1;
+        }
+        if (lastSpace > 0) return lastSpace;
+        // Brak jakiejkolwiek granicy (bardzo długie "słowo") – tniemy na sztywno, ale niepełny znak
+        // UTF-8 z końca bufora (bajt wiodący + za mało bajtów 10xxxxxx) przechodzi do następnego kawałka
+        int lead = length - 1;
+        while (lead > 0 && length - lead < 4 && (buf[lead] & 0xC0) == 0x80) lead--;
+        int b = buf[lead] & 0xFF;
+        int size = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+        return lead > 0 && lead + size > length ? lead : length;
+    }
+}
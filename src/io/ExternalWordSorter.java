@@ -0,0 +1,381 @@
+package io;
+
+import model.WordCount;
+import model.WordSort;
+
+import java.io.*; // Data*Stream, Buffered*Stream, RandomAccessFile, IOException, UncheckedIOException
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*; // ArrayList, Comparator, HashMap, Iterator, List, Map, PriorityQueue, ...
+
+/**
+ * Sortowanie zewnętrzne (spill-to-disk) dla słowników większych niż sterta.
+ *
+ * Dopóki słownik mieści się w budżecie (maxEntriesInMemory wpisów), wszystko dzieje się w pamięci.
+ * Budżet liczony jest we wpisach, nie w bajtach: wpis licznika (HashMap.Node + String + byte[])
+ * zajmuje na stercie ok. 90 B plus długość słowa, więc domyślny milion wpisów to ok. 100–150 MB.
+ * Dla bardzo długich słów (np. sklejonych tokenów) budżet trzeba odpowiednio zmniejszyć.
+ * Po przekroczeniu budżetu posortowane przebiegi (runs) są zapisywane do plików tymczasowych,
+ * a potem scalane k-drożnie (k-way merge). Liczenie przebiega w dwóch fazach:
+ *  1. zliczanie z przebiegami posortowanymi po słowie – przy scalaniu liczniki tych samych słów się sumują,
+ *  2. sortowanie wyniku wg WordSort (znów z przebiegami na dysku, jeśli trzeba).
+ *
+ * Wynik (SortedWordStream) czyta się strumieniowo, np. prosto do ReportWriter.writeSortedWordFrequency.
+ */
+public final class ExternalWordSorter {
+
+    /** Domyślny budżet: liczba wpisów słownika trzymanych naraz w pamięci. */
+    public static final int DEFAULT_MAX_ENTRIES = 1_000_000;
+
+    // Ile przebiegów scalamy naraz (ogranicza liczbę otwartych plików)
+    private static final int MAX_FAN_IN = 64;
+    private static final int IO_BUFFER = 64 * 1024;
+
+    private static final Comparator<WordCount> BY_WORD = Comparator.comparing(WordCount::word);
+
+    private final int maxEntriesInMemory;
+    private final Path tempBase;
+
+    public ExternalWordSorter() {
+        this(DEFAULT_MAX_ENTRIES, null);
+    }
+
+    public ExternalWordSorter(int maxEntriesInMemory) {
+        this(maxEntriesInMemory, null);
+    }
+
+    /**
+     * @param maxEntriesInMemory budżet pamięci wyrażony w liczbie wpisów (min. 2)
+     * @param tempBase           katalog na pliki tymczasowe (null = katalog systemowy)
+     */
+    public ExternalWordSorter(int maxEntriesInMemory, Path tempBase) {
+        if (maxEntriesInMemory < 2) throw new IllegalArgumentException("maxEntriesInMemory must be >= 2");
+        this.maxEntriesInMemory = maxEntriesInMemory;
+        this.tempBase = tempBase;
+    }
+
+    // ====== API ======
+
+    /** Zlicza słowa i zwraca częstotliwości posortowane wg sortMode. */
+    public SortedWordStream countAndSort(Iterable<String> words, WordSort sortMode) throws IOException {
+        try (WordCounter counter = newCounter()) {
+            for (String w : words) {
+                counter.add(w);
+            }
+            return counter.finish(sortMode);
+        }
+    }
+
+    /**
+     * Licznik przyrostowy – słowa można podawać porcjami (np. kawałek pliku po kawałku),
+     * bez budowania listy wszystkich słów. close() bez finish() usuwa zrzucone przebiegi.
+     */
+    public WordCounter newCounter() {
+        return new WordCounter();
+    }
+
+    /** Przyrostowe zliczanie z przebiegami na dysku; patrz newCounter(). */
+    public final class WordCounter implements AutoCloseable {
+        private final Session session = new Session();
+        private final Map<String, Integer> counts = new HashMap<>();
+        private final List<Path> runs = new ArrayList<>();
+        private boolean finished;
+
+        private WordCounter() {}
+
+        public void add(String word) throws IOException {
+            if (finished) throw new IllegalStateException("WordCounter already finished");
+            counts.merge(word, 1, Integer::sum);
+            if (counts.size() >= maxEntriesInMemory) {
+                runs.add(session.writeRun(sortedByWord(drain(counts))));
+            }
+        }
+
+        /** Kończy liczenie i zwraca częstotliwości posortowane wg sortMode. */
+        public SortedWordStream finish(WordSort sortMode) throws IOException {
+            if (finished) throw new IllegalStateException("WordCounter already finished");
+            finished = true;
+            try {
+                if (runs.isEmpty()) {
+                    // Całość zmieściła się w budżecie – jedna kopia i jedno sortowanie w pamięci
+                    List<WordCount> list = drain(counts);
+                    list.sort(sortMode.comparator());
+                    return SortedWordStream.inMemory(list);
+                }
+                if (!counts.isEmpty()) {
+                    runs.add(session.writeRun(sortedByWord(drain(counts))));
+                }
+
+                // Faza 1: scalenie przebiegów po słowie z sumowaniem liczników
+                List<Path> reduced = session.reduceFanIn(runs, BY_WORD, true);
+                SortedWordStream result;
+                try (MergeIterator merged = session.openMerge(reduced, BY_WORD, true)) {
+                    // Faza 2: sortowanie unikalnych słów wg WordSort
+                    result = session.sort(merged, sortMode.comparator());
+                }
+                session.delete(reduced);
+                runs.clear();
+                return result;
+            } catch (IOException | RuntimeException e) {
+                session.abandon();
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!finished) {
+                finished = true;
+                session.abandon();
+            }
+        }
+    }
+
+    /** Sortuje dowolny strumień WordCount wg komparatora (bez łączenia duplikatów). */
+    public SortedWordStream sort(Iterator<WordCount> input, Comparator<WordCount> order) throws IOException {
+        Session session = new Session();
+        try {
+            return session.sort(input, order);
+        } catch (IOException | RuntimeException e) {
+            session.abandon();
+            throw e;
+        }
+    }
+
+    // ====== Implementacja ======
+
+    private static List<WordCount> drain(Map<String, Integer> counts) {
+        List<WordCount> list = new ArrayList<>(counts.size());
+        for (Map.Entry<String, Integer> e : counts.entrySet()) {
+            list.add(new WordCount(e.getKey(), e.getValue()));
+        }
+        counts.clear();
+        return list;
+    }
+
+    private static List<WordCount> sortedByWord(List<WordCount> list) {
+        list.sort(BY_WORD);
+        return list;
+    }
+
+    // Słowo jako długość + bajty UTF-8 – writeUTF nie przyjmuje tekstu dłuższego niż 64 KB
+    private static void writeWord(DataOutputStream out, String word) throws IOException {
+        byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readWord(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Stan jednego sortowania: leniwie tworzony katalog tymczasowy i licznik plików przebiegów. */
+    private final class Session {
+        private Path dir;
+        private int nextRun;
+
+        SortedWordStream sort(Iterator<WordCount> input, Comparator<WordCount> order) throws IOException {
+            List<WordCount> buffer = new ArrayList<>();
+            List<Path> runs = new ArrayList<>();
+            while (input.hasNext()) {
+                buffer.add(input.next());
+                if (buffer.size() >= maxEntriesInMemory) {
+                    buffer.sort(order);
+                    runs.add(writeRun(buffer));
+                    buffer = new ArrayList<>();
+                }
+            }
+            buffer.sort(order);
+            if (runs.isEmpty()) {
+                return new SortedWordStream(buffer.iterator(), List.of(), dir);
+            }
+            if (!buffer.isEmpty()) {
+                runs.add(writeRun(buffer));
+            }
+            buffer = null;
+
+            runs = reduceFanIn(runs, order, false);
+            MergeIterator merged = openMerge(runs, order, false);
+            return new SortedWordStream(merged, List.of(merged), dir);
+        }
+
+        Path writeRun(List<WordCount> sorted) throws IOException {
+            if (dir == null) {
+                dir = tempBase == null
+                        ? Files.createTempDirectory("wordsort-")
+                        : Files.createTempDirectory(tempBase, "wordsort-");
+            }
+            Path run = dir.resolve("run-" + (nextRun++) + ".bin");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(run), IO_BUFFER))) {
+                out.writeInt(sorted.size());
+                for (WordCount wc : sorted) {
+                    writeWord(out, wc.word());
+                    out.writeInt(wc.count());
+                }
+            }
+            return run;
+        }
+
+        /** Scala przebiegi grupami po MAX_FAN_IN, aż zostanie ich najwyżej MAX_FAN_IN. */
+        List<Path> reduceFanIn(List<Path> runs, Comparator<WordCount> order, boolean combine) throws IOException {
+            while (runs.size() > MAX_FAN_IN) {
+                List<Path> next = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                    List<Path> group = runs.subList(i, Math.min(runs.size(), i + MAX_FAN_IN));
+                    next.add(mergeToRun(group, order, combine));
+                    delete(group);
+                }
+                runs = next;
+            }
+            return runs;
+        }
+
+        private Path mergeToRun(List<Path> group, Comparator<WordCount> order, boolean combine) throws IOException {
+            Path run = dir.resolve("run-" + (nextRun++) + ".bin");
+            // Liczba wpisów po scaleniu nie jest znana z góry – najpierw zapis, potem nagłówek
+            int written = 0;
+            try (MergeIterator merged = openMerge(group, order, combine);
+                 DataOutputStream out = new DataOutputStream(
+                         new BufferedOutputStream(Files.newOutputStream(run), IO_BUFFER))) {
+                out.writeInt(0);
+                while (merged.hasNext()) {
+                    WordCount wc = merged.next();
+                    writeWord(out, wc.word());
+                    out.writeInt(wc.count());
+                    written++;
+                }
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(run.toFile(), "rw")) {
+                raf.writeInt(written);
+            }
+            return run;
+        }
+
+        MergeIterator openMerge(List<Path> runs, Comparator<WordCount> order, boolean combine) throws IOException {
+            List<RunReader> readers = new ArrayList<>(runs.size());
+            try {
+                for (Path run : runs) {
+                    readers.add(new RunReader(run));
+                }
+            } catch (IOException e) {
+                for (RunReader r : readers) r.closeQuietly();
+                throw e;
+            }
+            return new MergeIterator(readers, order, combine);
+        }
+
+        void delete(List<Path> runs) throws IOException {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+
+        /** Sprzątanie po błędzie: usuwa katalog tymczasowy razem z zawartością. */
+        void abandon() {
+            if (dir == null) return;
+            try {
+                new SortedWordStream(Collections.emptyIterator(), List.of(), dir).close();
+            } catch (IOException ignored) {
+                // nie przesłaniamy pierwotnego błędu
+            }
+        }
+    }
+
+    /** Czytnik jednego przebiegu: nagłówek z liczbą wpisów, potem pary (słowo, licznik). */
+    private static final class RunReader implements AutoCloseable {
+        private final DataInputStream in;
+        private int remaining;
+        private WordCount head;
+
+        RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), IO_BUFFER));
+            this.remaining = in.readInt();
+            advance();
+        }
+
+        void advance() throws IOException {
+            if (remaining-- > 0) {
+                head = new WordCount(readWord(in), in.readInt());
+            } else {
+                head = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        void closeQuietly() {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // i tak zamykamy po błędzie
+            }
+        }
+    }
+
+    /** Scalanie k-drożne przebiegów na kopcu; opcjonalnie sumuje liczniki sąsiednich równych słów. */
+    private static final class MergeIterator implements Iterator<WordCount>, AutoCloseable {
+        private final PriorityQueue<RunReader> heap;
+        private final List<RunReader> readers;
+        private final boolean combine;
+
+        MergeIterator(List<RunReader> readers, Comparator<WordCount> order, boolean combine) {
+            this.readers = readers;
+            this.combine = combine;
+            this.heap = new PriorityQueue<>(Math.max(1, readers.size()), (a, b) -> order.compare(a.head, b.head));
+            for (RunReader r : readers) {
+                if (r.head != null) heap.add(r);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public WordCount next() {
+            if (heap.isEmpty()) throw new NoSuchElementException();
+            try {
+                WordCount result = pop();
+                if (combine) {
+                    long sum = result.count();
+                    while (!heap.isEmpty() && heap.peek().head.word().equals(result.word())) {
+                        sum += pop().count();
+                    }
+                    result = new WordCount(result.word(), Math.toIntExact(sum));
+                }
+                return result;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private WordCount pop() throws IOException {
+            RunReader r = heap.poll();
+            WordCount wc = r.head;
+            r.advance();
+            if (r.head != null) heap.add(r);
+            return wc;
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (RunReader r : readers) {
+                try {
+                    r.close();
+                } catch (IOException e) {
+                    if (failure == null) failure = e;
+                }
+            }
+            if (failure != null) throw failure;
+        }
+    }
+}
@@ -3,18 +3,17 @@ package io;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Narzędzia do wczytywania plików tekstowych.
- * Wersja zgodna z Twoim podejściem: FileInputStream + StringBuilder.
- * Uwaga: dla plików UTF-8 polskie znaki mogą nie zdekodować się poprawnie,
- * bo czytamy surowe bajty i rzutujemy na char. Jeśli będziesz potrzebować
- * pełnego wsparcia UTF-8, rozważ InputStreamReader(UTF-8) + BufferedReader.
+ * Pliki dekodowane są jako UTF-8 – tak samo jak kawałki w ChunkedTextReader.decode,
+ * więc wszystkie analizy (całego pliku i kawałkami) widzą te same znaki, także polskie litery.
  */
 public class FileUtil {
 
     /**
-     * Czyta cały plik jako String, składając kolejne bajty do StringBuilder.
+     * Czyta cały plik jako String (UTF-8).
      * Nie dodaje znaków nowej linii automatycznie (czytamy "tak jak leci").
      *
      * @param path ścieżka do pliku
@@ -23,14 +22,9 @@ public class FileUtil {
      */
 
     public static String readFileToString(String path) throws IOException {
-        StringBuilder sb = new StringBuilder();
         try (FileInputStream input = new FileInputStream(path)) {
-            int b;
-            while ((b = input.read()) != -1) {
-                sb.append((char) b);
-            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
         }
-        return sb.toString();
     }
     /**
      * (Opcjonalnie) Czyta plik i dokleja znak nowej linii po każdej linii,
@@ -40,29 +34,7 @@ public class FileUtil {
      */
 
     public static String readFileToStringWithNewlines(String path) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        try (FileInputStream input = new FileInputStream(path)) {
-            int b;
-            while ((b = input.read()) != -1) {
-                char c = (char) b;
-                sb.append(c);
-                // Tu można próbować wykrywać koniec linii po '\r' lub '\n' i dopisywać '\n',
-                // ale FileInputStream nie daje "liniowego" czytania, to tylko demonstracja.
-            }
-        }
-        return sb.toString();
+        // Plik czytany "tak jak leci" – nowe linie są już w treści
+        return readFileToString(path);
     }
-
-    // --- Alternatywa (komentowana) dla pełnego wsparcia UTF-8 ---
-    // public static String readFileUtf8(String path) throws IOException {
-    //     StringBuilder sb = new StringBuilder();
-    //     try (BufferedReader reader = new BufferedReader(
-    //             new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8))) {
-    //         String line;
-    //         while ((line = reader.readLine()) != null) {
-    //             sb.append(line).append('\n'); // zachowujemy nowe linie
-    //         }
-    //     }
-    //     return sb.toString();
-    // }
 }
\ No newline at end of file
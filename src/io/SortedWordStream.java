@@ -0,0 +1,83 @@
+package io;
+
+import model.WordCount;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*; // Iterator, List, ArrayList
+
+/**
+ * Jednorazowy, posortowany strumień WordCount – wynik ExternalWordSorter.
+ * Może być oparty o pliki tymczasowe na dysku, dlatego trzeba go zamknąć
+ * (try-with-resources); close() usuwa pliki i katalog tymczasowy.
+ *
+ * Strumień można przejść tylko raz – drugie wywołanie iterator() rzuca IllegalStateException.
+ */
+public final class SortedWordStream implements Iterable<WordCount>, AutoCloseable {
+
+    private final Iterator<WordCount> source;
+    private final List<AutoCloseable> resources;
+    private final Path tempDir;
+    private boolean consumed;
+    private boolean closed;
+
+    SortedWordStream(Iterator<WordCount> source, List<? extends AutoCloseable> resources, Path tempDir) {
+        this.source = source;
+        this.resources = new ArrayList<>(resources);
+        this.tempDir = tempDir;
+    }
+
+    /** Strumień w całości w pamięci (bez plików tymczasowych). */
+    static SortedWordStream inMemory(List<WordCount> sorted) {
+        return new SortedWordStream(sorted.iterator(), List.of(), null);
+    }
+
+    @Override
+    public Iterator<WordCount> iterator() {
+        if (closed) throw new IllegalStateException("SortedWordStream is closed");
+        if (consumed) throw new IllegalStateException("SortedWordStream can be iterated only once");
+        consumed = true;
+        return source;
+    }
+
+    /** Zbiera cały strumień do listy (tylko gdy wiadomo, że zmieści się w pamięci). */
+    public List<WordCount> toList() {
+        List<WordCount> result = new ArrayList<>();
+        for (WordCount wc : this) {
+            result.add(wc);
+        }
+        return result;
+    }
+
+    /** true, jeśli dane zostały zrzucone na dysk. */
+    public boolean spilled() {
+        return tempDir != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        IOException failure = null;
+        for (AutoCloseable r : resources) {
+            try {
+                r.close();
+            } catch (Exception e) {
+                if (failure == null) failure = e instanceof IOException io ? io : new IOException(e);
+            }
+        }
+        if (tempDir != null) {
+            try (var files = Files.list(tempDir)) {
+                for (Path p : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(p);
+                }
+                Files.deleteIfExists(tempDir);
+            } catch (IOException | UncheckedIOException e) {
+                if (failure == null) failure = e instanceof IOException io ? io : ((UncheckedIOException) e).getCause();
+            }
+        }
+        if (failure != null) throw failure;
+    }
+}
@@ -0,0 +1,249 @@
+package mapreduce;
+
+import model.MapReduceResult;
+import model.TextStats;
+
+import java.io.*; // Buffered*Stream, Data*Stream, IOException
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*; // ArrayList, Arrays, HashMap, List, Map, Objects, Set
+import java.util.concurrent.*; // CompletableFuture, ExecutorService, Executors, Future, TimeUnit, ...
+import java.util.concurrent.atomic.AtomicInteger;
+
+/// LocalCoordinator — tryb map-reduce na jednej maszynie: N osobnych procesów JVM
+///
+/// Plik dzielony jest na zakresy bajtów – co najmniej po jednym na robotnika, ale nie większe niż
+/// taskBytes (domyślnie 128 MiB), więc duży plik daje kolejkę zadań rozdzielaną między N robotników,
+/// a pojedynczy robotnik nigdy nie musi trzymać w pamięci ogromnego zakresu. Dla każdego zadania
+/// koordynator uruchamia przez ProcessBuilder proces ShardWorker, wysyła mu zadanie przez stdin
+/// i odbiera częściowe TextStats + częstotliwości przez stdout. Wyniki są scalane w kolejności pliku.
+///
+/// Zadanie, którego robotnik padł (kod wyjścia, uszkodzony wynik, przekroczony czas), jest
+/// uruchamiane ponownie – najwyżej maxRetries razy. Nie ponawiamy zadań odrzuconych przez robotnika
+/// (ShardProtocol.EXIT_TASK_FAILED, np. nieczytelny plik) – kolejna próba skończyłaby się tak samo.
+///
+/// Każdy robotnik ma własną stertę i własny GC, więc duży korpus nie obciąża jednej JVM.
+/// Robotnicy używają strategii DefaultNormalizer, WhitespaceTokenizer, DefaultSentenceTokenizer;
+/// ustawienie lemmas() włącza w nich tę samą lematyzację, co w analizatorze wywołującego.
+
+public class LocalCoordinator {
+
+    /** Domyślny maksymalny rozmiar zadania (zakresu bajtów) dla jednego robotnika. */
+    public static final long DEFAULT_TASK_BYTES = 128L << 20;
+
+    // Po zakończeniu robotnika stdout ma już koniec strumienia – odczyt reszty wyniku to chwila
+    private static final long READER_GRACE_SECONDS = 30;
+
+    /** Zadanie odrzucone przez robotnika – ponowienie nic nie da. */
+    private static final class TaskRejectedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        TaskRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    private final int workers;
+    private final int maxRetries;
+    private final List<String> jvmOptions = new ArrayList<>();
+    private long workerTimeoutSeconds = 0; // 0 = bez limitu
+    private long taskBytes = DEFAULT_TASK_BYTES;
+    private String lemmas = "";
+
+    public LocalCoordinator(int workers, int maxRetries) {
+        if (workers < 1) throw new IllegalArgumentException("workers must be >= 1");
+        if (maxRetries < 0) throw new IllegalArgumentException("maxRetries must be >= 0");
+        this.workers = workers;
+        this.maxRetries = maxRetries;
+    }
+
+    /** Dodatkowe opcje JVM robotników, np. "-Xmx512m". */
+    public LocalCoordinator jvmOptions(String... options) {
+        jvmOptions.addAll(Arrays.asList(options));
+        return this;
+    }
+
+    /** Limit czasu jednego robotnika (po nim proces jest zabijany i zadanie ponawiane). */
+    public LocalCoordinator workerTimeout(long seconds) {
+        this.workerTimeoutSeconds = Math.max(0, seconds);
+        return this;
+    }
+
+    /** Maksymalny rozmiar jednego zadania w bajtach (min. 1 MiB). */
+    public LocalCoordinator taskBytes(long bytes) {
+        if (bytes < (1 << 20)) throw new IllegalArgumentException("taskBytes must be >= 1 MiB");
+        this.taskBytes = bytes;
+        return this;
+    }
+
+    /**
+     * Lematyzacja w robotnikach, jak w LemmatizingTokenizer.forSetting: "" – brak, "stem" – stemmer
+     * regułowy, inaczej ścieżka słownika (czytana przez każdego robotnika, więc najlepiej bezwzględna).
+     */
+    public LocalCoordinator lemmas(String setting) {
+        this.lemmas = Objects.requireNonNull(setting, "setting must not be null");
+        return this;
+    }
+
+    /** Analiza jednego pliku: co najmniej `workers` zakresów bajtów, każdy nie większy niż taskBytes. */
+    public MapReduceResult run(String path, Set<String> stopWords, int minWordLength) throws IOException {
+        long size = Files.size(Path.of(path));
+        long perWorker = Math.max(1, (size + workers - 1) / workers);
+        List<ShardProtocol.Task> tasks = new ArrayList<>();
+        split(path, size, Math.min(perWorker, taskBytes), stopWords, minWordLength, lemmas, tasks);
+        return execute(tasks);
+    }
+
+    /** Analiza korpusu z wielu plików – plik to jedno zadanie (większy niż taskBytes – kilka), najwyżej `workers` naraz. */
+    public MapReduceResult runFiles(List<String> paths, Set<String> stopWords, int minWordLength) throws IOException {
+        List<ShardProtocol.Task> tasks = new ArrayList<>(paths.size());
+        for (String p : paths) {
+            split(p, Files.size(Path.of(p)), taskBytes, stopWords, minWordLength, lemmas, tasks);
+        }
+        return execute(tasks);
+    }
+
+    // ====== Implementacja ======
+
+    // Zakresy [start, end) po co najwyżej maxBytes; pusty plik to jedno (puste) zadanie
+    private static void split(String path, long size, long maxBytes, Set<String> stopWords, int minWordLength,
+                              String lemmas, List<ShardProtocol.Task> tasks) {
+        long parts = Math.max(1, (size + maxBytes - 1) / maxBytes);
+        for (long i = 0; i < parts; i++) {
+            tasks.add(new ShardProtocol.Task(path, size * i / parts, size * (i + 1) / parts,
+                    minWordLength, stopWords, lemmas));
+        }
+    }
+
+    private MapReduceResult execute(List<ShardProtocol.Task> tasks) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(workers, Math.max(1, tasks.size())), r -> {
+            Thread t = new Thread(r, "coordinator");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger retries = new AtomicInteger();
+        try {
+            List<Future<ShardProtocol.Partial>> futures = new ArrayList<>(tasks.size());
+            for (ShardProtocol.Task task : tasks) {
+                futures.add(pool.submit(() -> runWithRetries(task, retries)));
+            }
+
+            TextStats stats = new TextStats(0, 0, 0, 0);
+            Map<String, Integer> freq = new HashMap<>();
+            ShardProtocol.Task previous = null;
+            boolean openSentence = false;
+            for (int i = 0; i < futures.size(); i++) {
+                ShardProtocol.Task task = tasks.get(i);
+                ShardProtocol.Partial partial = futures.get(i).get();
+
+                // Zdanie przecięte granicą sąsiednich zakresów tego samego pliku liczy się raz
+                boolean adjacent = previous != null && previous.path().equals(task.path()) && previous.end() == task.start();
+                if (!adjacent) openSentence = false;
+                TextStats s = partial.stats();
+                if (openSentence && partial.startsMidSentence()) {
+                    s = new TextStats(s.charsWithSpaces(), s.charsWithoutSpaces(), s.words(), s.sentences() - 1);
+                }
+                if (s.charsWithoutSpaces() > 0) openSentence = partial.endsMidSentence();
+                previous = task;
+
+                stats = stats.plus(s);
+                for (Map.Entry<String, Integer> e : partial.frequency().entrySet()) {
+                    freq.merge(e.getKey(), e.getValue(), Integer::sum);
+                }
+            }
+            return new MapReduceResult(stats, freq, tasks.size(), retries.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("map-reduce interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            throw new IOException("map-reduce failed: " + cause, cause);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private ShardProtocol.Partial runWithRetries(ShardProtocol.Task task, AtomicInteger retries) throws IOException {
+        IOException last = null;
+        int attempts = 0;
+        while (attempts <= maxRetries) {
+            if (attempts > 0) retries.incrementAndGet();
+            attempts++;
+            try {
+                return runWorker(task);
+            } catch (TaskRejectedException e) {
+                last = e;
+                break; // błąd samego zadania – kolejna próba dałaby to samo
+            } catch (IOException e) {
+                last = e;
+            }
+        }
+        throw new IOException("shard [" + task.start() + ", " + task.end() + ") of " + task.path()
+                + " failed after " + attempts + " attempt(s): " + last.getMessage(), last);
+    }
+
+    private ShardProtocol.Partial runWorker(ShardProtocol.Task task) throws IOException {
+        Process process = new ProcessBuilder(workerCommand())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        // Wynik czyta osobny wątek tego robotnika (nie wspólna pula), żeby pełny bufor stdout
+        // nie blokował robotnika, a limit czasu dało się egzekwować przez process.waitFor
+        CompletableFuture<ShardProtocol.Partial> result = new CompletableFuture<>();
+        Thread reader = Thread.ofPlatform().daemon().name("shard-reader").start(() -> {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(process.getInputStream(), 64 * 1024))) {
+                result.complete(ShardProtocol.readPartial(in));
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()))) {
+                ShardProtocol.writeTask(out, task);
+            }
+
+            boolean exited = true;
+            if (workerTimeoutSeconds > 0) {
+                exited = process.waitFor(workerTimeoutSeconds, TimeUnit.SECONDS);
+            } else {
+                process.waitFor();
+            }
+            if (!exited) {
+                throw new IOException("worker timed out after " + workerTimeoutSeconds + " s");
+            }
+            int exit = process.exitValue();
+            if (exit == ShardProtocol.EXIT_TASK_FAILED) {
+                throw new TaskRejectedException("worker rejected the task (exit code " + exit + ", see its stderr)");
+            }
+            if (exit != 0) {
+                throw new IOException("worker exited with code " + exit);
+            }
+            return result.get(READER_GRACE_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new IOException("worker exited but its result was not received within " + READER_GRACE_SECONDS + " s");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            String reason = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+            throw new IOException("worker failed: " + reason, cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for worker", e);
+        } finally {
+            // Zamknięcie procesu zamyka też jego stdout, więc wątek czytający zawsze się kończy
+            process.destroyForcibly();
+            reader.interrupt();
+        }
+    }
+
+    private List<String> workerCommand() {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        cmd.addAll(jvmOptions);
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(ShardWorker.class.getName());
+        return cmd;
+    }
+}
@@ -0,0 +1,129 @@
+package mapreduce;
+
+import model.TextStats;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*; // HashMap, HashSet, Map, Set
+
+/// ShardProtocol — binarny format wymiany między koordynatorem a procesem-robotnikiem (stdin/stdout)
+///
+/// Zadanie:  MAGIC, ścieżka, start, end, minWordLength, liczba stop-words, stop-words..., lematyzacja
+/// Wynik:    MAGIC, 4 x int (TextStats), 2 x boolean (zdanie otwarte na początku / na końcu zakresu),
+///           liczba wpisów, (słowo, licznik)..., MAGIC (znacznik końca)
+///
+/// Napisy (ścieżka, słowa) zapisywane są jako długość (int) + bajty UTF-8, jak w ExternalWordSorter –
+/// writeUTF ma limit 65 535 bajtów, a jedno długie "słowo" z pliku nie może wywrócić zadania.
+///
+/// Znacznik końca pozwala odróżnić kompletny wynik od procesu, który padł w połowie zapisu.
+/// Kod wyjścia EXIT_TASK_FAILED oznacza błąd samego zadania (np. nieczytelny plik) – koordynator
+/// go nie ponawia; każdy inny niezerowy kod traktowany jest jak awaria robotnika.
+
+final class ShardProtocol {
+
+    static final int MAGIC = 0x54584152; // "TXAR"
+
+    /** Kod wyjścia robotnika, gdy zadania nie da się wykonać (ponowienie nic nie zmieni). */
+    static final int EXIT_TASK_FAILED = 2;
+
+    /**
+     * Zadanie dla robotnika: zakres bajtów [start, end) pliku.
+     *
+     * @param lemmas ustawienie lematyzacji (LemmatizingTokenizer.forSetting): "", "stem" albo ścieżka słownika
+     */
+    record Task(String path, long start, long end, int minWordLength, Set<String> stopWords, String lemmas) { }
+
+    /**
+     * Wynik robotnika.
+     *
+     * @param startsMidSentence zakres zaczyna się w środku zdania (ciąg dalszy z poprzedniego zakresu)
+     * @param endsMidSentence   ostatnie zdanie zakresu nie jest zakończone (.!?)
+     */
+    record Partial(TextStats stats, boolean startsMidSentence, boolean endsMidSentence, Map<String, Integer> frequency) { }
+
+    private ShardProtocol() {}
+
+    static void writeTask(DataOutputStream out, Task task) throws IOException {
+        out.writeInt(MAGIC);
+        writeString(out, task.path());
+        out.writeLong(task.start());
+        out.writeLong(task.end());
+        out.writeInt(task.minWordLength());
+        Set<String> stop = task.stopWords() == null ? Set.of() : task.stopWords();
+        out.writeInt(stop.size());
+        for (String w : stop) {
+            writeString(out, w);
+        }
+        writeString(out, task.lemmas());
+        out.flush();
+    }
+
+    static Task readTask(DataInputStream in) throws IOException {
+        checkMagic(in.readInt());
+        String path = readString(in);
+        long start = in.readLong();
+        long end = in.readLong();
+        int minWordLength = in.readInt();
+        int n = in.readInt();
+        Set<String> stop = new HashSet<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            stop.add(readString(in));
+        }
+        String lemmas = readString(in);
+        return new Task(path, start, end, minWordLength, stop.isEmpty() ? null : stop, lemmas);
+    }
+
+    static void writePartial(DataOutputStream out, Partial partial) throws IOException {
+        out.writeInt(MAGIC);
+        TextStats s = partial.stats();
+        out.writeInt(s.charsWithSpaces());
+        out.writeInt(s.charsWithoutSpaces());
+        out.writeInt(s.words());
+        out.writeInt(s.sentences());
+        out.writeBoolean(partial.startsMidSentence());
+        out.writeBoolean(partial.endsMidSentence());
+        out.writeInt(partial.frequency().size());
+        for (Map.Entry<String, Integer> e : partial.frequency().entrySet()) {
+            writeString(out, e.getKey());
+            out.writeInt(e.getValue());
+        }
+        out.writeInt(MAGIC);
+        out.flush();
+    }
+
+    static Partial readPartial(DataInputStream in) throws IOException {
+        checkMagic(in.readInt());
+        TextStats stats = new TextStats(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+        boolean startsMid = in.readBoolean();
+        boolean endsMid = in.readBoolean();
+        int n = in.readInt();
+        Map<String, Integer> freq = new HashMap<>(Math.max(16, n * 4 / 3 + 1));
+        for (int i = 0; i < n; i++) {
+            freq.put(readString(in), in.readInt());
+        }
+        checkMagic(in.readInt());
+        return new Partial(stats, startsMid, endsMid, freq);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) throw new IOException("corrupted shard stream (negative string length " + length + ")");
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void checkMagic(int value) throws IOException {
+        if (value != MAGIC) {
+            throw new IOException("corrupted shard stream (bad marker 0x" + Integer.toHexString(value) + ")");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package mapreduce;
+
+import core.DefaultNormalizer;
+import core.DefaultSentenceTokenizer;
+import core.LemmatizingTokenizer;
+import core.TextAnalyzer;
+import core.WhitespaceTokenizer;
+import io.ChunkedTextReader;
+
+import java.io.*; // BufferedInputStream, BufferedOutputStream, DataInputStream, DataOutputStream, IOException, RandomAccessFile
+
+/// ShardWorker — proces-robotnik trybu map-reduce
+///
+/// Czyta zadanie (ShardProtocol.Task) ze stdin, analizuje swój zakres bajtów pliku TextAnalyzerem
+/// (z lematyzacją wg ustawienia z zadania, jak u koordynatora) i odsyła TextStats + częstotliwości na stdout. Na stdout nie wolno pisać niczego innego –
+/// komunikaty diagnostyczne idą na stderr.
+///
+/// Granice zakresu są wyrównywane do białych znaków tak samo u wszystkich robotników:
+/// słowo należy do shardu, w którym się zaczyna, więc sąsiednie shardy dokładnie dzielą plik.
+/// Zdanie przecięte granicą shardu robotnik zgłasza flagami w wyniku, a koordynator liczy je raz.
+///
+/// Kod wyjścia: 0 – wynik wysłany, ShardProtocol.EXIT_TASK_FAILED – zadania nie da się wykonać
+/// (plik nieczytelny, zakres za duży itp.), 1 – inna awaria (np. brak pamięci).
+
+public final class ShardWorker {
+
+    // Jak w TextApp – robotnik żyje krótko, ale jego zakres to wciąż miliony słów
+    private static final int LEMMA_CACHE_SIZE = 65_536;
+
+    private ShardWorker() {}
+
+    public static void main(String[] args) {
+        ShardProtocol.Partial partial;
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+            ShardProtocol.Task task = ShardProtocol.readTask(in);
+            partial = analyze(task);
+        } catch (IOException | RuntimeException e) {
+            // Błąd zadania (odczyt pliku, zakres, dane) – powtórzy się przy każdej próbie
+            System.err.println("ShardWorker: " + e);
+            System.exit(ShardProtocol.EXIT_TASK_FAILED);
+            return;
+        } catch (Throwable t) {
+            System.err.println("ShardWorker: " + t);
+            System.exit(1);
+            return;
+        }
+
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(System.out, 64 * 1024));
+            ShardProtocol.writePartial(out, partial);
+        } catch (Throwable t) {
+            System.err.println("ShardWorker: " + t);
+            System.exit(1);
+        }
+    }
+
+    static ShardProtocol.Partial analyze(ShardProtocol.Task task) throws IOException {
+        String text = ChunkedTextReader.decode(readAligned(task.path(), task.start(), task.end()));
+        TextAnalyzer analyzer = new TextAnalyzer(
+                new DefaultNormalizer(),
+                LemmatizingTokenizer.forSetting(new WhitespaceTokenizer(), task.lemmas(), LEMMA_CACHE_SIZE),
+                new DefaultSentenceTokenizer()
+        );
+        return new ShardProtocol.Partial(
+                analyzer.analyze(text),
+                ChunkedTextReader.startsMidSentence(text),
+                ChunkedTextReader.continuesSentence(false, text),
+                analyzer.wordFrequencyFromText(text, task.stopWords(), task.minWordLength())
+        );
+    }
+
+    /** Czyta bajty [align(start), align(end)) pliku. */
+    static byte[] readAligned(String path, long start, long end) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+            long from = align(file, start);
+            long to = align(file, end);
+            if (to - from > Integer.MAX_VALUE - 8) {
+                throw new IOException("shard too large: " + (to - from) + " bytes");
+            }
+            byte[] bytes = new byte[(int) Math.max(0, to - from)];
+            file.seek(from);
+            file.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    /** Pierwsza pozycja p >= pos, przed którą stoi biały znak (albo początek/koniec pliku). */
+    static long align(RandomAccessFile file, long pos) throws IOException {
+        long length = file.length();
+        if (pos <= 0) return 0;
+        if (pos >= length) return length;
+
+        file.seek(pos - 1);
+        byte[] buf = new byte[8192];
+        long p = pos - 1;
+        int n;
+        while ((n = file.read(buf)) > 0) {
+            for (int i = 0; i < n; i++, p++) {
+                byte b = buf[i];
+                if (b == ' ' || b == '\n' || b == '\r' || b == '\t') return p + 1;
+            }
+        }
+        return length;
+    }
+}
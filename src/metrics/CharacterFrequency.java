@@ -0,0 +1,108 @@
+package metrics;
+
+import model.MetricResult;
+
+import java.util.*; // ArrayList, HashMap, LinkedHashMap, List, Map
+
+/// CharacterFrequency — klasy znaków (litery, cyfry, interpunkcja, białe znaki) i częstość liter
+///
+/// Litery liczone są bez rozróżniania wielkości (toLowerCase), osobno zliczane są polskie
+/// znaki diakrytyczne (ą ć ę ł ń ó ś ź ż). Liczniki dla alfabetu łacińskiego z rozszerzeniami
+/// (do U+024F, czyli także polskie litery) siedzą w tablicy – mapa tylko dla pozostałych pism.
+///
+/// Tekst z pliku (FileUtil, ChunkedTextReader) dekodowany jest jako UTF-8, więc polskie litery
+/// z plików docierają tu jako pojedyncze znaki, tak samo jak w tekście podanym jako String.
+public class CharacterFrequency implements MetricCollector {
+
+    private static final int DENSE = 0x250;
+    private static final String POLISH_DIACRITICS = "ąćęłńóśźż";
+
+    private final long[] dense = new long[DENSE];
+    private final Map<Character, Long> sparse = new HashMap<>();
+    private long digits;
+    private long whitespace;
+    private long punctuation;
+    private long other;
+
+    @Override
+    public String name() {
+        return "characters";
+    }
+
+    @Override
+    public void onChar(char c) {
+        if (Character.isLetter(c)) {
+            char lower = Character.toLowerCase(c);
+            if (lower < DENSE) {
+                dense[lower]++;
+            } else {
+                sparse.merge(lower, 1L, Long::sum);
+            }
+        } else if (Character.isDigit(c)) {
+            digits++;
+        } else if (Character.isWhitespace(c)) {
+            whitespace++;
+        } else if (isPunctuation(c)) {
+            punctuation++;
+        } else {
+            other++;
+        }
+    }
+
+    @Override
+    public MetricCollector fresh() {
+        return new CharacterFrequency();
+    }
+
+    @Override
+    public void merge(MetricCollector other) {
+        CharacterFrequency o = MetricCollectors.sameKind(this, other);
+        for (int i = 0; i < DENSE; i++) dense[i] += o.dense[i];
+        o.sparse.forEach((c, n) -> sparse.merge(c, n, Long::sum));
+        digits += o.digits;
+        whitespace += o.whitespace;
+        punctuation += o.punctuation;
+        this.other += o.other;
+    }
+
+    @Override
+    public MetricResult result() {
+        Map<Character, Long> letters = new HashMap<>(sparse);
+        for (int i = 0; i < DENSE; i++) {
+            if (dense[i] > 0) letters.put((char) i, dense[i]);
+        }
+        long letterTotal = 0;
+        long diacritics = 0;
+        for (Map.Entry<Character, Long> e : letters.entrySet()) {
+            letterTotal += e.getValue();
+            if (POLISH_DIACRITICS.indexOf(e.getKey()) >= 0) diacritics += e.getValue();
+        }
+
+        Map<String, Number> values = new LinkedHashMap<>();
+        values.put("letters", letterTotal);
+        values.put("digits", digits);
+        values.put("whitespace", whitespace);
+        values.put("punctuation", punctuation);
+        values.put("other", other);
+        values.put("polish_diacritics", diacritics);
+
+        // Litery malejąco po liczbie wystąpień, przy remisie wg kodu znaku
+        List<Map.Entry<Character, Long>> sorted = new ArrayList<>(letters.entrySet());
+        sorted.sort(Map.Entry.<Character, Long>comparingByValue().reversed()
+                .thenComparing(Map.Entry::getKey));
+        for (Map.Entry<Character, Long> e : sorted) {
+            values.put(String.valueOf(e.getKey()), e.getValue());
+        }
+        return new MetricResult(name(), "Znaki i litery", values);
+    }
+
+    private static boolean isPunctuation(char c) {
+        return switch (Character.getType(c)) {
+            case Character.CONNECTOR_PUNCTUATION, Character.DASH_PUNCTUATION,
+                 Character.START_PUNCTUATION, Character.END_PUNCTUATION,
+                 Character.INITIAL_QUOTE_PUNCTUATION, Character.FINAL_QUOTE_PUNCTUATION,
+                 Character.OTHER_PUNCTUATION -> true;
+            default -> false;
+        };
+    }
+}
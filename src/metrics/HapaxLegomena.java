@@ -0,0 +1,53 @@
+package metrics;
+
+import model.MetricResult;
+
+import java.util.*; // HashMap, LinkedHashMap, Map
+
+/// HapaxLegomena — słowa występujące w tekście dokładnie raz (hapax) i dokładnie dwa razy (dis legomena)
+///
+/// Hapaksy liczone są dopiero w result(), bo słowo jednorazowe w jednej partycji
+/// może powtórzyć się w innej.
+public class HapaxLegomena implements MetricCollector {
+
+    private final Map<String, Integer> counts = new HashMap<>();
+
+    @Override
+    public String name() {
+        return "hapax_legomena";
+    }
+
+    @Override
+    public void onToken(String token) {
+        counts.merge(token, 1, Integer::sum);
+    }
+
+    @Override
+    public MetricCollector fresh() {
+        return new HapaxLegomena();
+    }
+
+    @Override
+    public void merge(MetricCollector other) {
+        HapaxLegomena o = MetricCollectors.sameKind(this, other);
+        o.counts.forEach((w, n) -> counts.merge(w, n, Integer::sum));
+    }
+
+    @Override
+    public MetricResult result() {
+        long hapax = 0;
+        long dis = 0;
+        for (int n : counts.values()) {
+            if (n == 1) hapax++;
+            else if (n == 2) dis++;
+        }
+        int types = counts.size();
+
+        Map<String, Number> values = new LinkedHashMap<>();
+        values.put("types", (long) types);
+        values.put("hapax", hapax);
+        values.put("dis_legomena", dis);
+        values.put("hapax_ratio", types > 0 ? (double) hapax / types : 0.0);
+        return new MetricResult(name(), "Hapax legomena", values);
+    }
+}
@@ -0,0 +1,39 @@
+package metrics;
+
+import model.MetricResult;
+
+/// MetricCollector — SPI metryki liczonej we wspólnym, jednym przebiegu po tekście
+///
+/// TextAnalyzer skanuje tekst raz i rozsyła zdarzenia do wszystkich kolektorów:
+///   onChar     – każdy znak oryginalnego tekstu (przed normalizacją),
+///   onToken    – każde słowo po normalizacji i tokenizacji (bez filtrów stop-words / minWordLength),
+///   onSentence – koniec zdania, z liczbą słów w tym zdaniu.
+/// Kolektor nadpisuje tylko zdarzenia, które go interesują.
+///
+/// Tekst można dzielić na partycje (np. kawałki pliku liczone równolegle): każda partycja dostaje
+/// pustą kopię z fresh(), a na koniec kopie są scalane przez merge() w kolejności partycji.
+/// Pojedynczy kolektor nie musi być bezpieczny wątkowo – jedna instancja to jedna partycja.
+
+public interface MetricCollector {
+
+    /** Nazwa techniczna (klucz w raportach), np. "word_length". */
+    String name();
+
+    default void onChar(char c) { }
+
+    default void onToken(String token) { }
+
+    default void onSentence(int tokens) { }
+
+    /** Nowy, pusty kolektor tego samego rodzaju i konfiguracji (dla kolejnej partycji). */
+    MetricCollector fresh();
+
+    /**
+     * Dolicza stan kolektora innej partycji (utworzonego przez fresh()).
+     * @throws IllegalArgumentException gdy other jest innego rodzaju
+     */
+    void merge(MetricCollector other);
+
+    /** Bieżący wynik (można wołać wielokrotnie). */
+    MetricResult result();
+}
@@ -0,0 +1,47 @@
+package metrics;
+
+import java.util.*; // ArrayList, List
+
+/// MetricCollectors — zestaw domyślnych kolektorów i operacje na listach kolektorów (partycje)
+public final class MetricCollectors {
+
+    private MetricCollectors() {}
+
+    /** Wszystkie wbudowane metryki, każda w nowej instancji. */
+    public static List<MetricCollector> defaults() {
+        return new ArrayList<>(List.of(
+                new WordLengthHistogram(),
+                new CharacterFrequency(),
+                new TypeTokenRatio(),
+                new HapaxLegomena(),
+                new SentenceLength()
+        ));
+    }
+
+    /** Puste kopie (fresh()) – jedna lista na partycję. */
+    public static List<MetricCollector> fresh(List<MetricCollector> collectors) {
+        List<MetricCollector> copies = new ArrayList<>(collectors.size());
+        for (MetricCollector c : collectors) copies.add(c.fresh());
+        return copies;
+    }
+
+    /** Scala partycję do kolektorów docelowych (listy muszą odpowiadać sobie pozycjami). */
+    public static void mergeInto(List<MetricCollector> target, List<MetricCollector> partition) {
+        if (target.size() != partition.size()) {
+            throw new IllegalArgumentException("collector lists differ in size");
+        }
+        for (int i = 0; i < target.size(); i++) {
+            target.get(i).merge(partition.get(i));
+        }
+    }
+
+    // Wspólne sprawdzenie w merge(): scalać można tylko kolektory tej samej klasy
+    @SuppressWarnings("unchecked")
+    static <T extends MetricCollector> T sameKind(T self, MetricCollector other) {
+        if (other == null || other.getClass() != self.getClass()) {
+            throw new IllegalArgumentException("cannot merge " + self.getClass().getSimpleName()
+                    + " with " + (other == null ? "null" : other.getClass().getSimpleName()));
+        }
+        return (T) other;
+    }
+}
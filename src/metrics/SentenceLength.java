@@ -0,0 +1,61 @@
+package metrics;
+
+import model.MetricResult;
+
+import java.util.*; // LinkedHashMap, Map
+
+/// SentenceLength — średnia, minimalna i maksymalna długość zdania (w słowach)
+///
+/// Zdania bez żadnego słowa (np. sama interpunkcja) są pomijane.
+public class SentenceLength implements MetricCollector {
+
+    private long sentences;
+    private long words;
+    private long sumOfSquares;
+    private int min = Integer.MAX_VALUE;
+    private int max;
+
+    @Override
+    public String name() {
+        return "sentence_length";
+    }
+
+    @Override
+    public void onSentence(int tokens) {
+        if (tokens <= 0) return;
+        sentences++;
+        words += tokens;
+        sumOfSquares += (long) tokens * tokens;
+        min = Math.min(min, tokens);
+        max = Math.max(max, tokens);
+    }
+
+    @Override
+    public MetricCollector fresh() {
+        return new SentenceLength();
+    }
+
+    @Override
+    public void merge(MetricCollector other) {
+        SentenceLength o = MetricCollectors.sameKind(this, other);
+        sentences += o.sentences;
+        words += o.words;
+        sumOfSquares += o.sumOfSquares;
+        min = Math.min(min, o.min);
+        max = Math.max(max, o.max);
+    }
+
+    @Override
+    public MetricResult result() {
+        double mean = sentences > 0 ? (double) words / sentences : 0.0;
+        double variance = sentences > 0 ? (double) sumOfSquares / sentences - mean * mean : 0.0;
+
+        Map<String, Number> values = new LinkedHashMap<>();
+        values.put("sentences", sentences);
+        values.put("mean", mean);
+        values.put("stddev", Math.sqrt(Math.max(0.0, variance)));
+        values.put("min", sentences > 0 ? (long) min : 0L);
+        values.put("max", (long) max);
+        return new MetricResult(name(), "Długość zdań (w słowach)", values);
+    }
+}
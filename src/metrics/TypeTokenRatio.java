@@ -0,0 +1,48 @@
+package metrics;
+
+import model.MetricResult;
+
+import java.util.*; // HashSet, LinkedHashMap, Map, Set
+
+/// TypeTokenRatio — bogactwo słownictwa: liczba różnych słów (typów) do liczby wszystkich słów
+///
+/// Zwykłe TTR silnie zależy od długości tekstu, więc obok podawany jest też wskaźnik Guirauda
+/// (types / sqrt(tokens)), mniej wrażliwy na długość.
+public class TypeTokenRatio implements MetricCollector {
+
+    private final Set<String> types = new HashSet<>();
+    private long tokens;
+
+    @Override
+    public String name() {
+        return "type_token_ratio";
+    }
+
+    @Override
+    public void onToken(String token) {
+        types.add(token);
+        tokens++;
+    }
+
+    @Override
+    public MetricCollector fresh() {
+        return new TypeTokenRatio();
+    }
+
+    @Override
+    public void merge(MetricCollector other) {
+        TypeTokenRatio o = MetricCollectors.sameKind(this, other);
+        types.addAll(o.types);
+        tokens += o.tokens;
+    }
+
+    @Override
+    public MetricResult result() {
+        Map<String, Number> values = new LinkedHashMap<>();
+        values.put("tokens", tokens);
+        values.put("types", (long) types.size());
+        values.put("ratio", tokens > 0 ? (double) types.size() / tokens : 0.0);
+        values.put("guiraud", tokens > 0 ? types.size() / Math.sqrt(tokens) : 0.0);
+        return new MetricResult(name(), "Stosunek typów do słów (TTR)", values);
+    }
+}
@@ -0,0 +1,65 @@
+package metrics;
+
+import model.MetricResult;
+
+import java.util.*; // LinkedHashMap, Map
+
+/// WordLengthHistogram — rozkład długości słów (w znakach) i średnia długość słowa
+///
+/// Słowa dłuższe niż maxLength trafiają do ostatniego przedziału "maxLength+".
+public class WordLengthHistogram implements MetricCollector {
+
+    private final int maxLength;
+    private final long[] counts; // counts[len], len = 1..maxLength (ostatni = maxLength i więcej)
+    private long totalChars;
+
+    public WordLengthHistogram() {
+        this(20);
+    }
+
+    public WordLengthHistogram(int maxLength) {
+        if (maxLength < 1) throw new IllegalArgumentException("maxLength must be >= 1");
+        this.maxLength = maxLength;
+        this.counts = new long[maxLength + 1];
+    }
+
+    @Override
+    public String name() {
+        return "word_length";
+    }
+
+    @Override
+    public void onToken(String token) {
+        int len = token.length();
+        if (len == 0) return;
+        counts[Math.min(len, maxLength)]++;
+        totalChars += len;
+    }
+
+    @Override
+    public MetricCollector fresh() {
+        return new WordLengthHistogram(maxLength);
+    }
+
+    @Override
+    public void merge(MetricCollector other) {
+        WordLengthHistogram o = MetricCollectors.sameKind(this, other);
+        if (o.maxLength != maxLength) throw new IllegalArgumentException("histograms differ in maxLength");
+        for (int i = 0; i < counts.length; i++) counts[i] += o.counts[i];
+        totalChars += o.totalChars;
+    }
+
+    @Override
+    public MetricResult result() {
+        long words = 0;
+        for (long c : counts) words += c;
+
+        Map<String, Number> values = new LinkedHashMap<>();
+        values.put("words", words);
+        values.put("mean", words > 0 ? (double) totalChars / words : 0.0);
+        for (int len = 1; len <= maxLength; len++) {
+            values.put(len == maxLength ? len + "+" : String.valueOf(len), counts[len]);
+        }
+        return new MetricResult(name(), "Długość słów", values);
+    }
+}
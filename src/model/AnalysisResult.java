@@ -0,0 +1,21 @@
+package model;
+
+/**
+ * Wynik analizy, która mogła zostać przerwana (anulowanie lub przekroczony limit czasu).
+ * Przy przerwaniu value zawiera wynik częściowy – dla przetworzonej części pliku.
+ *
+ * @param value          wynik (pełny lub częściowy)
+ * @param status         jak zakończyła się analiza
+ * @param bytesProcessed przetworzone bajty
+ * @param totalBytes     rozmiar wejścia w bajtach
+ */
+public record AnalysisResult<T>(T value, Status status, long bytesProcessed, long totalBytes) {
+
+    /** Sposób zakończenia analizy. */
+    public enum Status { COMPLETE, CANCELLED, TIMED_OUT }
+
+    /** true, jeśli przetworzono całe wejście. */
+    public boolean complete() {
+        return status == Status.COMPLETE;
+    }
+}
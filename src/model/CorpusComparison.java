@@ -0,0 +1,27 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Wynik porównania dwóch korpusów.
+ *
+ * @param totalA      liczba słów (po filtrach) w korpusie A
+ * @param totalB      liczba słów (po filtrach) w korpusie B
+ * @param vocabularyA liczba różnych słów w A
+ * @param vocabularyB liczba różnych słów w B
+ * @param sharedWords liczba słów występujących w obu korpusach
+ * @param topA        słowa najbardziej charakterystyczne dla A (malejąco po log-likelihood)
+ * @param topB        słowa najbardziej charakterystyczne dla B (malejąco po log-likelihood)
+ */
+public record CorpusComparison(long totalA,
+                               long totalB,
+                               int vocabularyA,
+                               int vocabularyB,
+                               int sharedWords,
+                               List<KeywordScore> topA,
+                               List<KeywordScore> topB) {
+    public CorpusComparison {
+        topA = List.copyOf(topA);
+        topB = List.copyOf(topB);
+    }
+}
@@ -0,0 +1,22 @@
+package model;
+
+import java.util.*; // List, Map
+
+/**
+ * Wynik analizy kolekcji dokumentów z wykrywaniem duplikatów.
+ *
+ * @param documents         liczba dokumentów w kolekcji
+ * @param excludedDocuments ile duplikatów pominięto w stats i frequency (0, gdy nie pomijano)
+ * @param clusters          grupy duplikatów (tylko grupy co najmniej dwuelementowe)
+ * @param stats             zsumowane statystyki uwzględnionych dokumentów
+ * @param frequency         zsumowane częstotliwości uwzględnionych dokumentów
+ */
+public record DeduplicationResult(int documents,
+                                  int excludedDocuments,
+                                  List<DuplicateCluster> clusters,
+                                  TextStats stats,
+                                  Map<String, Integer> frequency) {
+    public DeduplicationResult {
+        clusters = List.copyOf(clusters);
+    }
+}
@@ -0,0 +1,21 @@
+package model;
+
+import java.util.*; // Collections, LinkedHashMap, Map, Objects
+
+/**
+ * Grupa dokumentów uznanych za (prawie) identyczne.
+ *
+ * @param representative dokument zachowywany przy pomijaniu duplikatów (pierwszy z kolekcji)
+ * @param duplicates     pozostałe dokumenty grupy → szacowane podobieństwo Jaccarda do reprezentanta
+ */
+public record DuplicateCluster(String representative, Map<String, Double> duplicates) {
+    public DuplicateCluster {
+        Objects.requireNonNull(representative, "representative must not be null");
+        duplicates = Collections.unmodifiableMap(new LinkedHashMap<>(duplicates));
+    }
+
+    /** Liczba dokumentów w grupie (z reprezentantem). */
+    public int size() {
+        return duplicates.size() + 1;
+    }
+}
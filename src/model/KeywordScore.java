@@ -0,0 +1,31 @@
+package model;
+
+/**
+ * Wynik porównania jednego słowa w dwóch korpusach (A i B).
+ *
+ * @param word          słowo (po normalizacji)
+ * @param countA        liczba wystąpień w korpusie A
+ * @param countB        liczba wystąpień w korpusie B
+ * @param relFreqA      częstość względna w A (wystąpienia na milion słów)
+ * @param relFreqB      częstość względna w B (wystąpienia na milion słów)
+ * @param logLikelihood statystyka log-likelihood (G2) – im wyższa, tym bardziej charakterystyczne słowo
+ * @param chiSquare     statystyka chi-kwadrat dla tabeli 2x2
+ */
+public record KeywordScore(String word,
+                           int countA,
+                           int countB,
+                           double relFreqA,
+                           double relFreqB,
+                           double logLikelihood,
+                           double chiSquare) {
+
+    /** Różnica liczby wystąpień (A - B). */
+    public int delta() {
+        return countA - countB;
+    }
+
+    /** true, jeśli słowo jest nadreprezentowane w korpusie A względem B. */
+    public boolean overusedInA() {
+        return relFreqA > relFreqB;
+    }
+}
@@ -0,0 +1,16 @@
+package model;
+
+import java.util.Map;
+
+/**
+ * Wynik analizy wieloprocesowej (LocalCoordinator): scalone wyniki wszystkich shardów.
+ *
+ * @param stats     zsumowane statystyki
+ * @param frequency scalone częstotliwości słów
+ * @param shards    liczba shardów (zadań dla procesów-robotników)
+ * @param retries   liczba ponowień po awariach robotników
+ */
+public record MapReduceResult(TextStats stats,
+                              Map<String, Integer> frequency,
+                              int shards,
+                              int retries) { }
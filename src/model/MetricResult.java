@@ -0,0 +1,16 @@
+package model;
+
+import java.util.*; // Collections, LinkedHashMap, Map, Objects
+
+/**
+ * Wynik jednej metryki (MetricCollector): nazwa techniczna, etykieta do wyświetlenia
+ * i wartości w ustalonej kolejności (np. histogram: "1", "2", ... albo "tokens", "types", "ratio").
+ * Wartości całkowite są typu Long, ułamkowe – Double.
+ */
+public record MetricResult(String name, String title, Map<String, Number> values) {
+    public MetricResult {
+        Objects.requireNonNull(name, "name must not be null");
+        Objects.requireNonNull(title, "title must not be null");
+        values = Collections.unmodifiableMap(new LinkedHashMap<>(Objects.requireNonNull(values, "values must not be null")));
+    }
+}
@@ -0,0 +1,13 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Wynik jednego przebiegu metryk: podstawowe statystyki (z tego samego skanu)
+ * i wyniki wszystkich podpiętych kolektorów – w kolejności ich podania.
+ */
+public record MetricsReport(TextStats stats, List<MetricResult> metrics) {
+    public MetricsReport {
+        metrics = List.copyOf(metrics);
+    }
+}
@@ -0,0 +1,21 @@
+package model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wynik potoku analizy: statystyki, częstotliwości słów i końcowe metryki etapów.
+ *
+ * @param stats     statystyki; words nasycone do Integer.MAX_VALUE (TextStats trzyma int)
+ * @param tokens    dokładna liczba słów (tokenów)
+ * @param frequency częstotliwości słów po filtrach
+ * @param metrics   metryki etapów po zakończeniu
+ */
+public record PipelineResult(TextStats stats,
+                             long tokens,
+                             Map<String, Integer> frequency,
+                             List<StageMetrics> metrics) {
+    public PipelineResult {
+        metrics = List.copyOf(metrics);
+    }
+}
@@ -0,0 +1,30 @@
+package model;
+
+/**
+ * Stan postępu długiej analizy (raportowany co kawałek pliku).
+ *
+ * @param bytesProcessed  przetworzone bajty
+ * @param totalBytes      rozmiar wejścia w bajtach
+ * @param tokensProcessed przetworzone słowa (tokeny)
+ * @param mbPerSecond     średnia przepustowość od startu (MB/s)
+ * @param etaMillis       szacowany czas do końca w ms (-1, jeśli nieznany)
+ */
+public record Progress(long bytesProcessed,
+                       long totalBytes,
+                       long tokensProcessed,
+                       double mbPerSecond,
+                       long etaMillis) {
+
+    /** Postęp z przepustowością i ETA liczonymi od chwili startNanos (System.nanoTime()). */
+    public static Progress since(long bytesProcessed, long totalBytes, long tokensProcessed, long startNanos) {
+        double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+        double bytesPerSecond = bytesProcessed / seconds;
+        long eta = bytesPerSecond > 0 ? (long) ((totalBytes - bytesProcessed) / bytesPerSecond * 1000) : -1;
+        return new Progress(bytesProcessed, totalBytes, tokensProcessed, bytesPerSecond / 1_000_000.0, eta);
+    }
+
+    /** Procent ukończenia (0–100). */
+    public double percent() {
+        return totalBytes > 0 ? 100.0 * bytesProcessed / totalBytes : 100.0;
+    }
+}
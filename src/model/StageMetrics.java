@@ -0,0 +1,18 @@
+package model;
+
+/**
+ * Metryki jednego etapu potoku analizy (migawka).
+ *
+ * @param stage          nazwa etapu
+ * @param itemsIn        elementy przyjęte przez etap
+ * @param itemsOut       elementy wysłane dalej
+ * @param queueDepth     elementy czekające w buforze wejściowym etapu
+ * @param itemsPerSecond przepustowość (elementy przyjęte na sekundę od pierwszego elementu)
+ * @param busyFraction   ułamek czasu spędzony na pracy (0–1); reszta to czekanie na dane lub na miejsce w buforze dalej
+ */
+public record StageMetrics(String stage,
+                           long itemsIn,
+                           long itemsOut,
+                           int queueDepth,
+                           double itemsPerSecond,
+                           double busyFraction) { }
@@ -1,6 +1,23 @@
 package model;
 
 public record TextStats(int charsWithSpaces, int charsWithoutSpaces, int words, int sentences) {
+    /**
+     * Suma statystyk dwóch części tekstu (np. kolejnych kawałków pliku).
+     * Liczniki nasycają się na Integer.MAX_VALUE – przy plikach wielogigabajtowych znaki
+     * przekraczają zakres int i zwykłe dodawanie dawałoby wartości ujemne.
+     */
+    public TextStats plus(TextStats other) {
+        return new TextStats(saturated((long) charsWithSpaces + other.charsWithSpaces),
+                saturated((long) charsWithoutSpaces + other.charsWithoutSpaces),
+                saturated((long) words + other.words),
+                saturated((long) sentences + other.sentences));
+    }
+
+    /** Wartość long przycięta do zakresu int (bez zawijania). */
+    public static int saturated(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
     @Override public String toString() {
         return "TextStats{charsWithSpaces=%d, charsWithoutSpaces=%d, words=%d, sentences=%d}"
                 .formatted(charsWithSpaces, charsWithoutSpaces, words, sentences);
@@ -0,0 +1,17 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Migawka top-N słów dla jednego okna przesuwnego.
+ *
+ * @param index      numer okna (od 0)
+ * @param startToken pozycja pierwszego tokenu okna (włącznie)
+ * @param endToken   pozycja końca okna (wyłącznie)
+ * @param top        najczęstsze słowa w oknie (malejąco po liczbie wystąpień)
+ */
+public record WindowSnapshot(int index, long startToken, long endToken, List<WordCount> top) {
+    public WindowSnapshot {
+        top = List.copyOf(top);
+    }
+}
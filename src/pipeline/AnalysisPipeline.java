@@ -0,0 +1,237 @@
+package pipeline;
+
+import core.AnalysisControl;
+import core.Normalizer;
+import core.SentenceTokenizer;
+import core.StopWords;
+import core.TextAnalyzer;
+import core.Tokenizer;
+import io.ChunkedTextReader;
+import model.AnalysisResult;
+import model.PipelineResult;
+import model.Progress;
+import model.StageMetrics;
+import model.TextStats;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*; // EnumMap, HashMap, List, Map, Objects, Set, ArrayList
+import java.util.concurrent.*; // CompletableFuture, ExecutionException, Executor, ExecutorService, Executors
+import java.util.concurrent.atomic.AtomicLong;
+
+/// AnalysisPipeline — analiza pliku jako potok etapów połączonych przez java.util.concurrent.Flow
+///
+/// READ -> DECODE -> NORMALIZE -> TOKENIZE -> FILTER -> COUNT, a z DECODE odgałęzienie STATS.
+/// Etapy korzystają z tych samych strategii co TextAnalyzer (Normalizer, Tokenizer, SentenceTokenizer).
+/// Bufory między etapami są ograniczone, więc wolny etap (np. lematyzacja w tokenizerze) hamuje
+/// odczyt pliku zamiast buforować cały plik w pamięci.
+///
+/// Każdy etap może mieć własny executor (executor(...)); domyślnie każdy dostaje osobny wątek.
+/// Uwaga: nie dawaj sąsiednim etapom wspólnego executora jednowątkowego – etap blokujący się
+/// na pełnym buforze zająłby jedyny wątek potrzebny etapowi, który ten bufor opróżnia.
+
+public class AnalysisPipeline {
+
+    /** Domyślna pojemność bufora między etapami (w elementach, czyli kawałkach pliku). */
+    public static final int DEFAULT_BUFFER_CAPACITY = 16;
+
+    private final Normalizer normalizer;
+    private final Tokenizer tokenizer;
+    private final SentenceTokenizer sentenceTokenizer;
+
+    private final Map<PipelineStage, Executor> executors = new EnumMap<>(PipelineStage.class);
+    private int bufferCapacity = DEFAULT_BUFFER_CAPACITY;
+    private int chunkSize = ChunkedTextReader.DEFAULT_CHUNK_SIZE;
+
+    // Etapy bieżącego uruchomienia (do podglądu metryk w trakcie)
+    private volatile List<Stage<?, ?>> running = List.of();
+
+    public AnalysisPipeline(Normalizer normalizer,
+                            Tokenizer tokenizer,
+                            SentenceTokenizer sentenceTokenizer) {
+        this.normalizer = Objects.requireNonNull(normalizer, "normalizer must not be null");
+        this.tokenizer = Objects.requireNonNull(tokenizer, "tokenizer must not be null");
+        this.sentenceTokenizer = Objects.requireNonNull(sentenceTokenizer, "sentenceTokenizer must not be null");
+    }
+
+    /** Własny executor dla etapu (nie jest zamykany przez potok). */
+    public AnalysisPipeline executor(PipelineStage stage, Executor executor) {
+        executors.put(Objects.requireNonNull(stage, "stage must not be null"),
+                Objects.requireNonNull(executor, "executor must not be null"));
+        return this;
+    }
+
+    /** Pojemność każdego bufora między etapami (min. 1). */
+    public AnalysisPipeline bufferCapacity(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        this.bufferCapacity = capacity;
+        return this;
+    }
+
+    /** Rozmiar kawałka czytanego z pliku w bajtach. */
+    public AnalysisPipeline chunkSize(int bytes) {
+        if (bytes < 1) throw new IllegalArgumentException("chunkSize must be >= 1");
+        this.chunkSize = bytes;
+        return this;
+    }
+
+    /** Migawka metryk etapów (głębokość kolejek, przepustowość) – można wołać w trakcie run(). */
+    public List<StageMetrics> metrics() {
+        List<StageMetrics> result = new ArrayList<>();
+        for (Stage<?, ?> s : running) {
+            result.add(s.metrics());
+        }
+        return result;
+    }
+
+    /** Uruchamia potok dla pliku i czeka na wynik. */
+    public PipelineResult run(String path, Set<String> stopWords, int minWordLength) throws IOException {
+        return run(path, stopWords, minWordLength, AnalysisControl.none()).value();
+    }
+
+    /**
+     * Potok z postępem, anulowaniem i terminem. Przerwanie sprawdzane jest przed odczytem każdego
+     * kawałka: etap READ kończy wtedy strumień, a kawałki już wczytane przechodzą do końca potoku,
+     * więc wynik częściowy obejmuje dokładnie bytesProcessed bajtów pliku.
+     */
+    public AnalysisResult<PipelineResult> run(String path,
+                                              Set<String> stopWords,
+                                              int minWordLength,
+                                              AnalysisControl control) throws IOException {
+        Objects.requireNonNull(control, "control must not be null");
+        List<ExecutorService> owned = new ArrayList<>();
+        Map<PipelineStage, Executor> exec = new EnumMap<>(PipelineStage.class);
+        for (PipelineStage stage : PipelineStage.values()) {
+            Executor e = executors.get(stage);
+            if (e == null) {
+                ExecutorService service = Executors.newSingleThreadExecutor(r -> {
+                    Thread t = new Thread(r, "pipeline-" + stage.name().toLowerCase(Locale.ROOT));
+                    t.setDaemon(true);
+                    return t;
+                });
+                owned.add(service);
+                e = service;
+            }
+            exec.put(stage, e);
+        }
+
+        // Stan etapów końcowych – każdy etap jest wołany sekwencyjnie, więc zwykłe kolekcje wystarczą
+        Map<String, Integer> freq = new HashMap<>();
+        AtomicLong tokens = new AtomicLong();
+        TextStats[] partial = { new TextStats(0, 0, 0, 0) };
+        boolean[] openSentence = { false };
+        Set<String> stop = StopWords.asTokens(stopWords, normalizer, tokenizer);
+
+        Stage<Void, byte[]> read = new Stage<>(PipelineStage.READ, exec.get(PipelineStage.READ), bufferCapacity, v -> null);
+        Stage<byte[], String> decode = new Stage<>(PipelineStage.DECODE, exec.get(PipelineStage.DECODE), bufferCapacity,
+                ChunkedTextReader::decode);
+        Stage<String, String> normalize = new Stage<>(PipelineStage.NORMALIZE, exec.get(PipelineStage.NORMALIZE), bufferCapacity,
+                normalizer::normalize);
+        Stage<String, List<String>> tokenize = new Stage<>(PipelineStage.TOKENIZE, exec.get(PipelineStage.TOKENIZE), bufferCapacity,
+                tokenizer::words);
+        Stage<List<String>, List<String>> filter = new Stage<>(PipelineStage.FILTER, exec.get(PipelineStage.FILTER), bufferCapacity,
+                words -> {
+                    tokens.addAndGet(words.size());
+                    words.removeIf(w -> !TextAnalyzer.passesFilter(w, stop, minWordLength));
+                    return words;
+                });
+        Stage<List<String>, Void> count = new Stage<>(PipelineStage.COUNT, exec.get(PipelineStage.COUNT), bufferCapacity,
+                words -> {
+                    for (String w : words) freq.merge(w, 1, Integer::sum);
+                    return null;
+                });
+        Stage<String, Void> stats = new Stage<>(PipelineStage.STATS, exec.get(PipelineStage.STATS), bufferCapacity,
+                chunk -> {
+                    int withoutSpaces = 0;
+                    for (int i = 0; i < chunk.length(); i++) {
+                        if (!isRegexWhitespace(chunk.charAt(i))) withoutSpaces++;
+                    }
+                    int sentences = sentenceTokenizer.sentences(chunk).size();
+                    if (openSentence[0] && ChunkedTextReader.startsMidSentence(chunk)) {
+                        sentences--; // ciąg dalszy zdania z poprzedniego kawałka
+                    }
+                    openSentence[0] = ChunkedTextReader.continuesSentence(openSentence[0], chunk);
+                    partial[0] = partial[0].plus(new TextStats(chunk.length(), withoutSpaces, 0, sentences));
+                    return null;
+                });
+
+        read.connect(decode);
+        decode.connect(normalize);
+        decode.connect(stats);
+        normalize.connect(tokenize);
+        tokenize.connect(filter);
+        filter.connect(count);
+        running = List.of(read, decode, normalize, tokenize, filter, count, stats);
+
+        try {
+            // Źródło: czyta kawałki na executorze READ; emit() blokuje, gdy DECODE nie nadąża
+            CompletableFuture<ReadOutcome> source = CompletableFuture.supplyAsync(
+                    () -> readChunks(path, read, control, tokens), exec.get(PipelineStage.READ));
+
+            CompletableFuture.allOf(count.done(), stats.done()).get();
+            ReadOutcome outcome = source.get();
+            TextStats s = partial[0];
+            // TextStats trzyma int; przy ponad 2^31 słowach words jest nasycane, dokładna liczba jest w tokens
+            int words = TextStats.saturated(tokens.get());
+            PipelineResult result = new PipelineResult(
+                    new TextStats(s.charsWithSpaces(), s.charsWithoutSpaces(), words, s.sentences()),
+                    tokens.get(),
+                    freq,
+                    metrics());
+            return new AnalysisResult<>(result, outcome.status(), outcome.bytesRead(), outcome.totalBytes());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("pipeline interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException io) throw io.getCause();
+            if (cause instanceof IOException io) throw io;
+            throw new IOException("pipeline failed: " + cause, cause);
+        } finally {
+            for (ExecutorService service : owned) {
+                service.shutdownNow();
+            }
+        }
+    }
+
+    // Te same znaki co \s w TextAnalyzer.analyze (replaceAll("\\s+", ""))
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private record ReadOutcome(AnalysisResult.Status status, long bytesRead, long totalBytes) { }
+
+    private ReadOutcome readChunks(String path, Stage<Void, byte[]> read, AnalysisControl control, AtomicLong tokens) {
+        try (ChunkedTextReader reader = new ChunkedTextReader(path, chunkSize)) {
+            AnalysisResult.Status status = AnalysisResult.Status.COMPLETE;
+            long bytes = 0;
+            long begin = System.nanoTime();
+            long start = begin;
+            byte[] chunk;
+            while ((chunk = reader.nextChunk()) != null) {
+                if (control.token().isCancelled()) {
+                    status = AnalysisResult.Status.CANCELLED;
+                    break;
+                }
+                if (control.deadlinePassed()) {
+                    status = AnalysisResult.Status.TIMED_OUT;
+                    break;
+                }
+                read.recordWork(start);
+                read.emit(chunk);
+                bytes += chunk.length;
+                // Postęp wg odczytu; słowa – tyle, ile zdążył policzyć etap FILTER
+                control.listener().onProgress(Progress.since(bytes, reader.totalBytes(), tokens.get(), begin));
+                start = System.nanoTime();
+            }
+            read.complete();
+            return new ReadOutcome(status, bytes, reader.totalBytes());
+        } catch (IOException e) {
+            read.fail(new UncheckedIOException(e));
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            read.fail(e);
+            throw e;
+        }
+    }
+}
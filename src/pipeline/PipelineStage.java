@@ -0,0 +1,9 @@
+package pipeline;
+
+/// Etapy potoku analizy (kolejność przepływu danych)
+///
+/// READ -> DECODE -> NORMALIZE -> TOKENIZE -> FILTER -> COUNT
+///                \-> STATS (znaki, zdania)
+public enum PipelineStage {
+    READ, DECODE, NORMALIZE, TOKENIZE, FILTER, COUNT, STATS
+}
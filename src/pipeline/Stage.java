@@ -0,0 +1,161 @@
+package pipeline;
+
+import model.StageMetrics;
+
+import java.util.*; // List, ArrayList, Objects
+import java.util.concurrent.*; // CompletableFuture, Executor, Flow, SubmissionPublisher, CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/// Stage — jeden etap potoku: Flow.Processor, który przekształca element wejściowy w wyjściowy
+///
+/// Każde połączenie z kolejnym etapem to osobny SubmissionPublisher z ograniczonym buforem,
+/// działający na executorze etapu odbierającego. Dzięki temu:
+///  - funkcja etapu wykonuje się zawsze na executorze skonfigurowanym dla tego etapu,
+///  - gdy bufor za etapem jest pełny, submit() blokuje – wolny etap dalej hamuje etapy wcześniejsze
+///    (backpressure), zamiast kumulować wszystko w pamięci.
+///
+/// Funkcja zwracająca null nic nie emituje (tak działają etapy końcowe, np. liczenie).
+
+class Stage<I, O> implements Flow.Processor<I, O> {
+
+    private final PipelineStage name;
+    private final Executor executor;
+    private final int bufferCapacity;
+    private final Function<? super I, ? extends O> function;
+
+    private final List<SubmissionPublisher<O>> outputs = new CopyOnWriteArrayList<>();
+    private volatile SubmissionPublisher<?> inbound;
+    private Flow.Subscription subscription;
+
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    // Metryki (zapisywane tylko z wątku etapu – onNext jest serializowane przez SubmissionPublisher)
+    private final AtomicLong itemsIn = new AtomicLong();
+    private final AtomicLong itemsOut = new AtomicLong();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private volatile long firstItemNanos;
+    private volatile long lastItemNanos;
+
+    Stage(PipelineStage name, Executor executor, int bufferCapacity, Function<? super I, ? extends O> function) {
+        this.name = Objects.requireNonNull(name, "name must not be null");
+        this.executor = Objects.requireNonNull(executor, "executor must not be null");
+        this.bufferCapacity = bufferCapacity;
+        this.function = Objects.requireNonNull(function, "function must not be null");
+    }
+
+    /** Łączy ten etap z następnym (bufor na executorze następnego etapu). */
+    void connect(Stage<? super O, ?> next) {
+        SubmissionPublisher<O> link = new SubmissionPublisher<>(next.executor, bufferCapacity);
+        next.inbound = link;
+        outputs.add(link);
+        link.subscribe(next);
+    }
+
+    /** Zwykły Flow.Subscriber (spoza potoku) dostaje bufor na executorze tego etapu. */
+    @Override
+    public void subscribe(Flow.Subscriber<? super O> subscriber) {
+        SubmissionPublisher<O> link = new SubmissionPublisher<>(executor, bufferCapacity);
+        outputs.add(link);
+        link.subscribe(subscriber);
+    }
+
+    // ====== Flow.Subscriber ======
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(bufferCapacity);
+    }
+
+    @Override
+    public void onNext(I item) {
+        long start = System.nanoTime();
+        if (firstItemNanos == 0) firstItemNanos = start;
+        itemsIn.incrementAndGet();
+        try {
+            O out = function.apply(item);
+            busyNanos.addAndGet(System.nanoTime() - start);
+            if (out != null) {
+                emit(out);
+            }
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            onError(e);
+            return;
+        }
+        lastItemNanos = System.nanoTime();
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        for (SubmissionPublisher<O> out : outputs) {
+            out.closeExceptionally(throwable);
+        }
+        done.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        for (SubmissionPublisher<O> out : outputs) {
+            out.close();
+        }
+        done.complete(null);
+    }
+
+    // ====== Dla potoku ======
+
+    /** Wysyła element do wszystkich następnych etapów; blokuje, gdy któryś bufor jest pełny. */
+    void emit(O out) {
+        for (SubmissionPublisher<O> link : outputs) {
+            link.submit(out);
+        }
+        itemsOut.incrementAndGet();
+    }
+
+    /** Etap źródłowy (bez wejścia) kończy strumień sam. */
+    void complete() {
+        onComplete();
+    }
+
+    void fail(Throwable t) {
+        onError(t);
+    }
+
+    /** Zakończenie tego etapu (normalne lub z błędem). */
+    CompletableFuture<Void> done() {
+        return done;
+    }
+
+    PipelineStage name() {
+        return name;
+    }
+
+    Executor executor() {
+        return executor;
+    }
+
+    /** Wlicza czas pracy etapu źródłowego (który nie przechodzi przez onNext). */
+    void recordWork(long startNanos) {
+        if (firstItemNanos == 0) firstItemNanos = startNanos;
+        itemsIn.incrementAndGet();
+        busyNanos.addAndGet(System.nanoTime() - startNanos);
+        lastItemNanos = System.nanoTime();
+    }
+
+    StageMetrics metrics() {
+        SubmissionPublisher<?> in = inbound;
+        long first = firstItemNanos;
+        long last = done.isDone() ? lastItemNanos : System.nanoTime();
+        double seconds = first == 0 ? 0 : Math.max(1e-9, (last - first) / 1e9);
+        long items = itemsIn.get();
+        return new StageMetrics(
+                name.name(),
+                items,
+                itemsOut.get(),
+                in == null ? 0 : in.estimateMaximumLag(),
+                seconds > 0 ? items / seconds : 0.0,
+                seconds > 0 ? Math.min(1.0, busyNanos.get() / 1e9 / seconds) : 0.0);
+    }
+}
@@ -1,8 +1,18 @@
 package util;
 
+import model.CorpusComparison;
+import model.DeduplicationResult;
+import model.DuplicateCluster;
+import model.KeywordScore;
+import model.MetricResult;
+import model.MetricsReport;
 import model.TextStats;
+import model.WindowSnapshot;
+import model.WordCount;
+import model.WordSort;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -16,7 +26,11 @@ import java.util.stream.Collectors;
  * Obsługuje:
  *  - podstawowe statystyki (TextStats),
  *  - pełne statystyki (TextStats + częstotliwość słów),
- *  - samą częstotliwość słów.
+ *  - samą częstotliwość słów,
+ *  - porównanie dwóch korpusów (słowa charakterystyczne),
+ *  - serię migawek top-N z okna przesuwnego,
+ *  - metryki z kolektorów (MetricCollector) obok podstawowych statystyk,
+ *  - grupy duplikatów w kolekcji dokumentów (NearDuplicateDetector).
  */
 
 
@@ -65,6 +79,71 @@ public final class ReportWriter {
         write(out, content);
     }
 
+    /**
+     * Zapis częstotliwości podanych jako gotowa, już posortowana sekwencja WordCount – w kolejności
+     * iteracji, bez ponownego sortowania. Treść jest pisana strumieniowo (bez budowania całego raportu
+     * w pamięci), więc nadaje się dla strumienia z sortowania zewnętrznego (SortedWordStream) i dla
+     * OffHeapFrequencyTable.sorted(...). Sama OffHeapFrequencyTable iteruje w kolejności slotów.
+     */
+    public static void writeSortedWordFrequency(Iterable<WordCount> sorted, Path out, Format format) throws IOException {
+        Files.createDirectories(out.getParent() == null ? Path.of(".") : out.getParent());
+        try (var w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            switch (format) {
+                case CSV  -> streamFreqCsv(sorted, w);
+                case TXT  -> streamFreqTxt(sorted, w);
+                case JSON -> streamFreqJson(sorted, w);
+                case XML  -> streamFreqXml(sorted, w);
+            }
+        }
+    }
+
+    /** Zapis porównania dwóch korpusów (top-K słów charakterystycznych dla każdej strony). */
+    public static void writeComparison(CorpusComparison cmp, Path out, Format format) throws IOException {
+        String content = switch (format) {
+            case CSV  -> buildComparisonCsv(cmp);
+            case TXT  -> buildComparisonTxt(cmp);
+            case JSON -> buildComparisonJson(cmp);
+            case XML  -> buildComparisonXml(cmp);
+        };
+        write(out, content);
+    }
+
+    /** Zapis serii migawek top-N z okna przesuwnego. */
+    public static void writeSlidingWindow(List<WindowSnapshot> windows, Path out, Format format) throws IOException {
+        String content = switch (format) {
+            case CSV  -> buildWindowsCsv(windows);
+            case TXT  -> buildWindowsTxt(windows);
+            case JSON -> buildWindowsJson(windows);
+            case XML  -> buildWindowsXml(windows);
+        };
+        write(out, content);
+    }
+
+    /** Zapis raportu metryk: podstawowe statystyki + wyniki wszystkich kolektorów. */
+    public static void writeMetrics(MetricsReport report, Path out, Format format) throws IOException {
+        String content = switch (format) {
+            case CSV  -> buildMetricsCsv(report);
+            case TXT  -> buildMetricsTxt(report);
+            case JSON -> buildMetricsJson(report);
+            case XML  -> buildMetricsXml(report);
+        };
+        write(out, content);
+    }
+
+    /**
+     * Zapis grup duplikatów wraz z podsumowaniem kolekcji: statystyki i pełna tabela częstotliwości
+     * po ewentualnym pominięciu duplikatów.
+     */
+    public static void writeDuplicates(DeduplicationResult result, Path out, Format format) throws IOException {
+        String content = switch (format) {
+            case CSV  -> buildDuplicatesCsv(result);
+            case TXT  -> buildDuplicatesTxt(result);
+            case JSON -> buildDuplicatesJson(result);
+            case XML  -> buildDuplicatesXml(result);
+        };
+        write(out, content);
+    }
+
     // ======= Budowanie treści =======
 
     // --- BASIC ---
@@ -120,11 +199,8 @@ public final class ReportWriter {
     private static String buildFullCsv(TextStats s, Map<String,Integer> freq) {
         // Sekcja statystyk + sekcja częstotliwości
         StringBuilder sb = new StringBuilder();
-        sb.append(buildBasicCsv(s));
-        sb.append("\nword,count\n");
-        for (var e : sortedFreq(freq)) {
-            sb.append(csvEscape(e.getKey())).append(",").append(e.getValue()).append("\n");
-        }
+        sb.append(buildBasicCsv(s)).append("\n");
+        appendFreqCsv(sb, freq);
         return sb.toString();
     }
 
@@ -132,10 +208,7 @@ public final class ReportWriter {
         String nl = System.lineSeparator();
         StringBuilder sb = new StringBuilder();
         sb.append(buildBasicTxt(s)).append(nl);
-        sb.append("=== Częstotliwość słów ===").append(nl);
-        for (var e : sortedFreq(freq)) {
-            sb.append(String.format("%-20s : %d", e.getKey(), e.getValue())).append(nl);
-        }
+        appendFreqTxt(sb, "=== Częstotliwość słów ===", freq, nl);
         return sb.toString();
     }
 
@@ -150,15 +223,7 @@ public final class ReportWriter {
         sb.append("    \"charsWithoutSpaces\": ").append(s.charsWithoutSpaces()).append(",\n");
         sb.append("    \"sentences\": ").append(s.sentences()).append("\n");
         sb.append("  },\n");
-        sb.append("  \"frequency\": {\n");
-        // wpisy „key: value” z przecinkami – ostrożnie z ostatnim
-        List<Map.Entry<String,Integer>> entries = new ArrayList<>(sortedFreq(freq));
-        for (int i = 0; i < entries.size(); i++) {
-            var e = entries.get(i);
-            sb.append("    \"").append(jsonEscape(e.getKey())).append("\": ").append(e.getValue());
-            sb.append(i < entries.size() - 1 ? ",\n" : "\n");
-        }
-        sb.append("  }\n");
+        appendFreqJson(sb, freq);
         sb.append("}\n");
         return sb.toString();
     }
@@ -173,12 +238,7 @@ public final class ReportWriter {
         sb.append("    <charsWithoutSpaces>").append(s.charsWithoutSpaces()).append("</charsWithoutSpaces>\n");
         sb.append("    <sentences>").append(s.sentences()).append("</sentences>\n");
         sb.append("  </stats>\n");
-        sb.append("  <frequency>\n");
-        for (var e : sortedFreq(freq)) {
-            sb.append("    <item word=\"").append(xmlEscape(e.getKey())).append("\" count=\"")
-                    .append(e.getValue()).append("\"/>\n");
-        }
-        sb.append("  </frequency>\n");
+        appendFreqXml(sb, freq);
         sb.append("</report>\n");
         return sb.toString();
     }
@@ -187,19 +247,14 @@ public final class ReportWriter {
 
     private static String buildFreqCsv(Map<String,Integer> freq) {
         StringBuilder sb = new StringBuilder();
-        sb.append("word,count\n");
-        for (var e : sortedFreq(freq)) {
-            sb.append(csvEscape(e.getKey())).append(",").append(e.getValue()).append("\n");
-        }
+        appendFreqCsv(sb, freq);
         return sb.toString();
     }
 
     private static String buildFreqTxt(Map<String,Integer> freq) {
         String nl = System.lineSeparator();
-        StringBuilder sb = new StringBuilder("=== Częstotliwość słów ===").append(nl);
-        for (var e : sortedFreq(freq)) {
-            sb.append(String.format("%-20s : %d", e.getKey(), e.getValue())).append(nl);
-        }
+        StringBuilder sb = new StringBuilder();
+        appendFreqTxt(sb, "=== Częstotliwość słów ===", freq, nl);
         return sb.toString();
     }
 
@@ -208,28 +263,503 @@ public final class ReportWriter {
         sb.append("{\n");
         sb.append("  \"type\": \"word_frequency\",\n");
         sb.append("  \"generatedAt\": \"").append(isoNow()).append("\",\n");
+        appendFreqJson(sb, freq);
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String buildFreqXml(Map<String,Integer> freq) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append("<report type=\"word_frequency\" generatedAt=\"").append(xmlEscape(isoNow())).append("\">\n");
+        appendFreqXml(sb, freq);
+        sb.append("</report>\n");
+        return sb.toString();
+    }
+
+    // Sekcje częstotliwości (WordSort.FREQUENCY_DESC) wspólne dla raportów full, freq i duplikatów
+
+    private static void appendFreqCsv(StringBuilder sb, Map<String,Integer> freq) {
+        sb.append("word,count\n");
+        for (WordCount wc : sortedFreq(freq)) {
+            sb.append(csvEscape(wc.word())).append(",").append(wc.count()).append("\n");
+        }
+    }
+
+    private static void appendFreqTxt(StringBuilder sb, String title, Map<String,Integer> freq, String nl) {
+        sb.append(title).append(nl);
+        for (WordCount wc : sortedFreq(freq)) {
+            sb.append(String.format("%-20s : %d", wc.word(), wc.count())).append(nl);
+        }
+    }
+
+    private static void appendFreqJson(StringBuilder sb, Map<String,Integer> freq) {
         sb.append("  \"frequency\": {\n");
-        List<Map.Entry<String,Integer>> entries = new ArrayList<>(sortedFreq(freq));
+        // wpisy „key: value” z przecinkami – ostrożnie z ostatnim
+        List<WordCount> entries = sortedFreq(freq);
         for (int i = 0; i < entries.size(); i++) {
-            var e = entries.get(i);
-            sb.append("    \"").append(jsonEscape(e.getKey())).append("\": ").append(e.getValue());
+            WordCount wc = entries.get(i);
+            sb.append("    \"").append(jsonEscape(wc.word())).append("\": ").append(wc.count());
             sb.append(i < entries.size() - 1 ? ",\n" : "\n");
         }
         sb.append("  }\n");
+    }
+
+    private static void appendFreqXml(StringBuilder sb, Map<String,Integer> freq) {
+        sb.append("  <frequency>\n");
+        for (WordCount wc : sortedFreq(freq)) {
+            sb.append("    <item word=\"").append(xmlEscape(wc.word())).append("\" count=\"")
+                    .append(wc.count()).append("\"/>\n");
+        }
+        sb.append("  </frequency>\n");
+    }
+
+    // --- FREQ (strumieniowo, kolejność z wejścia) ---
+
+    private static void streamFreqCsv(Iterable<WordCount> sorted, Writer w) throws IOException {
+        w.write("word,count\n");
+        for (WordCount wc : sorted) {
+            w.write(csvEscape(wc.word()) + "," + wc.count() + "\n");
+        }
+    }
+
+    private static void streamFreqTxt(Iterable<WordCount> sorted, Writer w) throws IOException {
+        String nl = System.lineSeparator();
+        w.write("=== Częstotliwość słów ===" + nl);
+        for (WordCount wc : sorted) {
+            w.write(String.format("%-20s : %d", wc.word(), wc.count()) + nl);
+        }
+    }
+
+    private static void streamFreqJson(Iterable<WordCount> sorted, Writer w) throws IOException {
+        w.write("{\n");
+        w.write("  \"type\": \"word_frequency\",\n");
+        w.write("  \"generatedAt\": \"" + isoNow() + "\",\n");
+        w.write("  \"frequency\": {");
+        // separator przed każdym wpisem poza pierwszym – nie znamy z góry liczby wpisów
+        boolean first = true;
+        for (WordCount wc : sorted) {
+            w.write(first ? "\n" : ",\n");
+            w.write("    \"" + jsonEscape(wc.word()) + "\": " + wc.count());
+            first = false;
+        }
+        w.write(first ? "}\n" : "\n  }\n");
+        w.write("}\n");
+    }
+
+    private static void streamFreqXml(Iterable<WordCount> sorted, Writer w) throws IOException {
+        w.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        w.write("<report type=\"word_frequency\" generatedAt=\"" + xmlEscape(isoNow()) + "\">\n");
+        w.write("  <frequency>\n");
+        for (WordCount wc : sorted) {
+            w.write("    <item word=\"" + xmlEscape(wc.word()) + "\" count=\"" + wc.count() + "\"/>\n");
+        }
+        w.write("  </frequency>\n");
+        w.write("</report>\n");
+    }
+
+    // --- COMPARISON ---
+
+    private static String buildComparisonCsv(CorpusComparison c) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("metric,value\n");
+        sb.append("total_a,").append(c.totalA()).append("\n");
+        sb.append("total_b,").append(c.totalB()).append("\n");
+        sb.append("vocabulary_a,").append(c.vocabularyA()).append("\n");
+        sb.append("vocabulary_b,").append(c.vocabularyB()).append("\n");
+        sb.append("shared_words,").append(c.sharedWords()).append("\n");
+        sb.append("\nside,word,count_a,count_b,delta,per_million_a,per_million_b,log_likelihood,chi_square\n");
+        appendKeywordsCsv(sb, "A", c.topA());
+        appendKeywordsCsv(sb, "B", c.topB());
+        return sb.toString();
+    }
+
+    private static void appendKeywordsCsv(StringBuilder sb, String side, List<KeywordScore> scores) {
+        for (KeywordScore k : scores) {
+            sb.append(side).append(",")
+                    .append(csvEscape(k.word())).append(",")
+                    .append(k.countA()).append(",")
+                    .append(k.countB()).append(",")
+                    .append(k.delta()).append(",")
+                    .append(num(k.relFreqA())).append(",")
+                    .append(num(k.relFreqB())).append(",")
+                    .append(num(k.logLikelihood())).append(",")
+                    .append(num(k.chiSquare())).append("\n");
+        }
+    }
+
+    private static String buildComparisonTxt(CorpusComparison c) {
+        String nl = System.lineSeparator();
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Porównanie korpusów ===").append(nl);
+        sb.append("Słowa A: ").append(c.totalA()).append(" (różnych: ").append(c.vocabularyA()).append(")").append(nl);
+        sb.append("Słowa B: ").append(c.totalB()).append(" (różnych: ").append(c.vocabularyB()).append(")").append(nl);
+        sb.append("Wspólne słowa: ").append(c.sharedWords()).append(nl).append(nl);
+        appendKeywordsTxt(sb, "=== Charakterystyczne dla A ===", c.topA(), nl);
+        sb.append(nl);
+        appendKeywordsTxt(sb, "=== Charakterystyczne dla B ===", c.topB(), nl);
+        return sb.toString();
+    }
+
+    private static void appendKeywordsTxt(StringBuilder sb, String title, List<KeywordScore> scores, String nl) {
+        sb.append(title).append(nl);
+        for (KeywordScore k : scores) {
+            sb.append(String.format(Locale.ROOT, "%-20s : A=%d B=%d LL=%.2f chi2=%.2f",
+                    k.word(), k.countA(), k.countB(), k.logLikelihood(), k.chiSquare())).append(nl);
+        }
+    }
+
+    private static String buildComparisonJson(CorpusComparison c) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"type\": \"corpus_comparison\",\n");
+        sb.append("  \"generatedAt\": \"").append(isoNow()).append("\",\n");
+        sb.append("  \"summary\": {\n");
+        sb.append("    \"totalA\": ").append(c.totalA()).append(",\n");
+        sb.append("    \"totalB\": ").append(c.totalB()).append(",\n");
+        sb.append("    \"vocabularyA\": ").append(c.vocabularyA()).append(",\n");
+        sb.append("    \"vocabularyB\": ").append(c.vocabularyB()).append(",\n");
+        sb.append("    \"sharedWords\": ").append(c.sharedWords()).append("\n");
+        sb.append("  },\n");
+        sb.append("  \"topA\": [\n");
+        appendKeywordsJson(sb, c.topA());
+        sb.append("  ],\n");
+        sb.append("  \"topB\": [\n");
+        appendKeywordsJson(sb, c.topB());
+        sb.append("  ]\n");
         sb.append("}\n");
         return sb.toString();
     }
 
-    private static String buildFreqXml(Map<String,Integer> freq) {
+    private static void appendKeywordsJson(StringBuilder sb, List<KeywordScore> scores) {
+        for (int i = 0; i < scores.size(); i++) {
+            KeywordScore k = scores.get(i);
+            sb.append("    {\"word\": \"").append(jsonEscape(k.word())).append("\"")
+                    .append(", \"countA\": ").append(k.countA())
+                    .append(", \"countB\": ").append(k.countB())
+                    .append(", \"delta\": ").append(k.delta())
+                    .append(", \"perMillionA\": ").append(num(k.relFreqA()))
+                    .append(", \"perMillionB\": ").append(num(k.relFreqB()))
+                    .append(", \"logLikelihood\": ").append(num(k.logLikelihood()))
+                    .append(", \"chiSquare\": ").append(num(k.chiSquare()))
+                    .append("}");
+            sb.append(i < scores.size() - 1 ? ",\n" : "\n");
+        }
+    }
+
+    private static String buildComparisonXml(CorpusComparison c) {
         StringBuilder sb = new StringBuilder();
         sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        sb.append("<report type=\"word_frequency\" generatedAt=\"").append(xmlEscape(isoNow())).append("\">\n");
-        sb.append("  <frequency>\n");
-        for (var e : sortedFreq(freq)) {
-            sb.append("    <item word=\"").append(xmlEscape(e.getKey())).append("\" count=\"")
-                    .append(e.getValue()).append("\"/>\n");
+        sb.append("<report type=\"corpus_comparison\" generatedAt=\"").append(xmlEscape(isoNow())).append("\">\n");
+        sb.append("  <summary>\n");
+        sb.append("    <totalA>").append(c.totalA()).append("</totalA>\n");
+        sb.append("    <totalB>").append(c.totalB()).append("</totalB>\n");
+        sb.append("    <vocabularyA>").append(c.vocabularyA()).append("</vocabularyA>\n");
+        sb.append("    <vocabularyB>").append(c.vocabularyB()).append("</vocabularyB>\n");
+        sb.append("    <sharedWords>").append(c.sharedWords()).append("</sharedWords>\n");
+        sb.append("  </summary>\n");
+        sb.append("  <topA>\n");
+        appendKeywordsXml(sb, c.topA());
+        sb.append("  </topA>\n");
+        sb.append("  <topB>\n");
+        appendKeywordsXml(sb, c.topB());
+        sb.append("  </topB>\n");
+        sb.append("</report>\n");
+        return sb.toString();
+    }
+
+    private static void appendKeywordsXml(StringBuilder sb, List<KeywordScore> scores) {
+        for (KeywordScore k : scores) {
+            sb.append("    <item word=\"").append(xmlEscape(k.word()))
+                    .append("\" countA=\"").append(k.countA())
+                    .append("\" countB=\"").append(k.countB())
+                    .append("\" delta=\"").append(k.delta())
+                    .append("\" perMillionA=\"").append(num(k.relFreqA()))
+                    .append("\" perMillionB=\"").append(num(k.relFreqB()))
+                    .append("\" logLikelihood=\"").append(num(k.logLikelihood()))
+                    .append("\" chiSquare=\"").append(num(k.chiSquare()))
+                    .append("\"/>\n");
         }
-        sb.append("  </frequency>\n");
+    }
+
+    // --- SLIDING WINDOW ---
+
+    private static String buildWindowsCsv(List<WindowSnapshot> windows) {
+        // Jeden wiersz na (okno, pozycja w rankingu) – wygodne do wykresów szeregów czasowych
+        StringBuilder sb = new StringBuilder();
+        sb.append("window,start_token,end_token,rank,word,count\n");
+        for (WindowSnapshot w : windows) {
+            int rank = 1;
+            for (WordCount wc : w.top()) {
+                sb.append(w.index()).append(",")
+                        .append(w.startToken()).append(",")
+                        .append(w.endToken()).append(",")
+                        .append(rank++).append(",")
+                        .append(csvEscape(wc.word())).append(",")
+                        .append(wc.count()).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String buildWindowsTxt(List<WindowSnapshot> windows) {
+        String nl = System.lineSeparator();
+        StringBuilder sb = new StringBuilder("=== Top N w oknie przesuwnym ===").append(nl);
+        for (WindowSnapshot w : windows) {
+            sb.append("Okno ").append(w.index())
+                    .append(" [").append(w.startToken()).append(", ").append(w.endToken()).append(")").append(nl);
+            for (WordCount wc : w.top()) {
+                sb.append(String.format("  %-20s : %d", wc.word(), wc.count())).append(nl);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String buildWindowsJson(List<WindowSnapshot> windows) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"type\": \"sliding_window_top\",\n");
+        sb.append("  \"generatedAt\": \"").append(isoNow()).append("\",\n");
+        sb.append("  \"windows\": [\n");
+        for (int i = 0; i < windows.size(); i++) {
+            WindowSnapshot w = windows.get(i);
+            sb.append("    {\"index\": ").append(w.index())
+                    .append(", \"startToken\": ").append(w.startToken())
+                    .append(", \"endToken\": ").append(w.endToken())
+                    .append(", \"top\": [");
+            List<WordCount> top = w.top();
+            for (int j = 0; j < top.size(); j++) {
+                sb.append("{\"word\": \"").append(jsonEscape(top.get(j).word()))
+                        .append("\", \"count\": ").append(top.get(j).count()).append("}");
+                if (j < top.size() - 1) sb.append(", ");
+            }
+            sb.append("]}");
+            sb.append(i < windows.size() - 1 ? ",\n" : "\n");
+        }
+        sb.append("  ]\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String buildWindowsXml(List<WindowSnapshot> windows) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append("<report type=\"sliding_window_top\" generatedAt=\"").append(xmlEscape(isoNow())).append("\">\n");
+        for (WindowSnapshot w : windows) {
+            sb.append("  <window index=\"").append(w.index())
+                    .append("\" startToken=\"").append(w.startToken())
+                    .append("\" endToken=\"").append(w.endToken()).append("\">\n");
+            for (WordCount wc : w.top()) {
+                sb.append("    <item word=\"").append(xmlEscape(wc.word())).append("\" count=\"")
+                        .append(wc.count()).append("\"/>\n");
+            }
+            sb.append("  </window>\n");
+        }
+        sb.append("</report>\n");
+        return sb.toString();
+    }
+
+    // --- METRICS ---
+
+    private static String buildMetricsCsv(MetricsReport r) {
+        // Sekcja statystyk + jedna tabela "metryka, klucz, wartość" dla wszystkich kolektorów
+        StringBuilder sb = new StringBuilder();
+        sb.append(buildBasicCsv(r.stats()));
+        sb.append("\nmetric,key,value\n");
+        for (MetricResult m : r.metrics()) {
+            for (var e : m.values().entrySet()) {
+                sb.append(csvEscape(m.name())).append(",")
+                        .append(csvEscape(e.getKey())).append(",")
+                        .append(metricValue(e.getValue())).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String buildMetricsTxt(MetricsReport r) {
+        String nl = System.lineSeparator();
+        StringBuilder sb = new StringBuilder(buildBasicTxt(r.stats()));
+        for (MetricResult m : r.metrics()) {
+            sb.append(nl).append("=== ").append(m.title()).append(" ===").append(nl);
+            for (var e : m.values().entrySet()) {
+                sb.append(String.format("%-20s : %s", e.getKey(), metricValue(e.getValue()))).append(nl);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String buildMetricsJson(MetricsReport r) {
+        TextStats s = r.stats();
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"type\": \"text_metrics\",\n");
+        sb.append("  \"generatedAt\": \"").append(isoNow()).append("\",\n");
+        sb.append("  \"stats\": {\n");
+        sb.append("    \"words\": ").append(s.words()).append(",\n");
+        sb.append("    \"charsWithSpaces\": ").append(s.charsWithSpaces()).append(",\n");
+        sb.append("    \"charsWithoutSpaces\": ").append(s.charsWithoutSpaces()).append(",\n");
+        sb.append("    \"sentences\": ").append(s.sentences()).append("\n");
+        sb.append("  },\n");
+        sb.append("  \"metrics\": {");
+        List<MetricResult> metrics = r.metrics();
+        for (int i = 0; i < metrics.size(); i++) {
+            MetricResult m = metrics.get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    \"").append(jsonEscape(m.name())).append("\": {\n");
+            sb.append("      \"title\": \"").append(jsonEscape(m.title())).append("\",\n");
+            sb.append("      \"values\": {");
+            boolean first = true;
+            for (var e : m.values().entrySet()) {
+                sb.append(first ? "\n" : ",\n");
+                sb.append("        \"").append(jsonEscape(e.getKey())).append("\": ").append(metricValue(e.getValue()));
+                first = false;
+            }
+            sb.append(first ? "}\n" : "\n      }\n");
+            sb.append("    }");
+        }
+        sb.append(metrics.isEmpty() ? "}\n" : "\n  }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String buildMetricsXml(MetricsReport r) {
+        TextStats s = r.stats();
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append("<report type=\"text_metrics\" generatedAt=\"").append(xmlEscape(isoNow())).append("\">\n");
+        sb.append("  <stats>\n");
+        sb.append("    <words>").append(s.words()).append("</words>\n");
+        sb.append("    <charsWithSpaces>").append(s.charsWithSpaces()).append("</charsWithSpaces>\n");
+        sb.append("    <charsWithoutSpaces>").append(s.charsWithoutSpaces()).append("</charsWithoutSpaces>\n");
+        sb.append("    <sentences>").append(s.sentences()).append("</sentences>\n");
+        sb.append("  </stats>\n");
+        sb.append("  <metrics>\n");
+        for (MetricResult m : r.metrics()) {
+            sb.append("    <metric name=\"").append(xmlEscape(m.name()))
+                    .append("\" title=\"").append(xmlEscape(m.title())).append("\">\n");
+            for (var e : m.values().entrySet()) {
+                sb.append("      <value key=\"").append(xmlEscape(e.getKey())).append("\">")
+                        .append(metricValue(e.getValue())).append("</value>\n");
+            }
+            sb.append("    </metric>\n");
+        }
+        sb.append("  </metrics>\n");
+        sb.append("</report>\n");
+        return sb.toString();
+    }
+
+    // --- DUPLICATES ---
+
+    private static String buildDuplicatesCsv(DeduplicationResult r) {
+        // Podsumowanie + jeden wiersz na dokument należący do którejś grupy
+        StringBuilder sb = new StringBuilder();
+        sb.append("metric,value\n");
+        sb.append("documents,").append(r.documents()).append("\n");
+        sb.append("clusters,").append(r.clusters().size()).append("\n");
+        sb.append("excluded_documents,").append(r.excludedDocuments()).append("\n");
+        sb.append("words,").append(r.stats().words()).append("\n");
+        sb.append("distinct_words,").append(r.frequency().size()).append("\n");
+        sb.append("sentences,").append(r.stats().sentences()).append("\n");
+        sb.append("\ncluster,document,role,similarity\n");
+        int id = 1;
+        for (DuplicateCluster c : r.clusters()) {
+            sb.append(id).append(",").append(csvEscape(c.representative())).append(",representative,").append(num(1.0)).append("\n");
+            for (var e : c.duplicates().entrySet()) {
+                sb.append(id).append(",").append(csvEscape(e.getKey())).append(",duplicate,").append(num(e.getValue())).append("\n");
+            }
+            id++;
+        }
+        sb.append("\n");
+        appendFreqCsv(sb, r.frequency());
+        return sb.toString();
+    }
+
+    private static String buildDuplicatesTxt(DeduplicationResult r) {
+        String nl = System.lineSeparator();
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Duplikaty w kolekcji ===").append(nl);
+        sb.append("Dokumenty: ").append(r.documents()).append(nl);
+        sb.append("Grupy duplikatów: ").append(r.clusters().size()).append(nl);
+        sb.append("Pominięte dokumenty: ").append(r.excludedDocuments()).append(nl);
+        sb.append("Słowa (po pominięciu): ").append(r.stats().words())
+                .append(" (różnych: ").append(r.frequency().size()).append(")").append(nl);
+        int id = 1;
+        for (DuplicateCluster c : r.clusters()) {
+            sb.append(nl).append("Grupa ").append(id++).append(" (").append(c.size()).append(" dok.)").append(nl);
+            sb.append("  * ").append(c.representative()).append(nl);
+            for (var e : c.duplicates().entrySet()) {
+                sb.append(String.format(Locale.ROOT, "    %s (podobieństwo %.2f)", e.getKey(), e.getValue())).append(nl);
+            }
+        }
+        sb.append(nl);
+        appendFreqTxt(sb, "=== Częstotliwość słów (po pominięciu) ===", r.frequency(), nl);
+        return sb.toString();
+    }
+
+    private static String buildDuplicatesJson(DeduplicationResult r) {
+        TextStats s = r.stats();
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"type\": \"duplicate_clusters\",\n");
+        sb.append("  \"generatedAt\": \"").append(isoNow()).append("\",\n");
+        sb.append("  \"summary\": {\n");
+        sb.append("    \"documents\": ").append(r.documents()).append(",\n");
+        sb.append("    \"clusters\": ").append(r.clusters().size()).append(",\n");
+        sb.append("    \"excludedDocuments\": ").append(r.excludedDocuments()).append("\n");
+        sb.append("  },\n");
+        sb.append("  \"stats\": {\n");
+        sb.append("    \"words\": ").append(s.words()).append(",\n");
+        sb.append("    \"charsWithSpaces\": ").append(s.charsWithSpaces()).append(",\n");
+        sb.append("    \"charsWithoutSpaces\": ").append(s.charsWithoutSpaces()).append(",\n");
+        sb.append("    \"sentences\": ").append(s.sentences()).append("\n");
+        sb.append("  },\n");
+        sb.append("  \"clusters\": [\n");
+        List<DuplicateCluster> clusters = r.clusters();
+        for (int i = 0; i < clusters.size(); i++) {
+            DuplicateCluster c = clusters.get(i);
+            sb.append("    {\"representative\": \"").append(jsonEscape(c.representative())).append("\", \"duplicates\": [");
+            int j = 0;
+            for (var e : c.duplicates().entrySet()) {
+                if (j++ > 0) sb.append(", ");
+                sb.append("{\"document\": \"").append(jsonEscape(e.getKey()))
+                        .append("\", \"similarity\": ").append(num(e.getValue())).append("}");
+            }
+            sb.append("]}");
+            sb.append(i < clusters.size() - 1 ? ",\n" : "\n");
+        }
+        sb.append("  ],\n");
+        appendFreqJson(sb, r.frequency());
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String buildDuplicatesXml(DeduplicationResult r) {
+        TextStats s = r.stats();
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append("<report type=\"duplicate_clusters\" generatedAt=\"").append(xmlEscape(isoNow())).append("\">\n");
+        sb.append("  <summary>\n");
+        sb.append("    <documents>").append(r.documents()).append("</documents>\n");
+        sb.append("    <clusters>").append(r.clusters().size()).append("</clusters>\n");
+        sb.append("    <excludedDocuments>").append(r.excludedDocuments()).append("</excludedDocuments>\n");
+        sb.append("  </summary>\n");
+        sb.append("  <stats>\n");
+        sb.append("    <words>").append(s.words()).append("</words>\n");
+        sb.append("    <charsWithSpaces>").append(s.charsWithSpaces()).append("</charsWithSpaces>\n");
+        sb.append("    <charsWithoutSpaces>").append(s.charsWithoutSpaces()).append("</charsWithoutSpaces>\n");
+        sb.append("    <sentences>").append(s.sentences()).append("</sentences>\n");
+        sb.append("  </stats>\n");
+        sb.append("  <clusters>\n");
+        for (DuplicateCluster c : r.clusters()) {
+            sb.append("    <cluster representative=\"").append(xmlEscape(c.representative())).append("\">\n");
+            for (var e : c.duplicates().entrySet()) {
+                sb.append("      <duplicate document=\"").append(xmlEscape(e.getKey()))
+                        .append("\" similarity=\"").append(num(e.getValue())).append("\"/>\n");
+            }
+            sb.append("    </cluster>\n");
+        }
+        sb.append("  </clusters>\n");
+        appendFreqXml(sb, r.frequency());
         sb.append("</report>\n");
         return sb.toString();
     }
@@ -247,11 +777,23 @@ public final class ReportWriter {
         return OffsetDateTime.now().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
     }
 
-    private static List<Map.Entry<String,Integer>> sortedFreq(Map<String,Integer> freq) {
+    // Liczby zmiennoprzecinkowe zawsze z kropką (CSV/JSON/XML nie znoszą przecinka dziesiętnego)
+    private static String num(double v) {
+        return String.format(Locale.ROOT, "%.4f", v);
+    }
+
+    // Wartość metryki: całkowite bez zmian, ułamkowe jak num()
+    private static String metricValue(Number v) {
+        return v instanceof Double || v instanceof Float ? num(v.doubleValue()) : String.valueOf(v);
+    }
+
+    // Ta sama kolejność co strumień z ExternalWordSorter (FREQUENCY_DESC) – raport nie zależy od tego,
+    // czy słownik zmieścił się w pamięci
+    private static List<WordCount> sortedFreq(Map<String,Integer> freq) {
         if (freq == null || freq.isEmpty()) return Collections.emptyList();
         return freq.entrySet().stream()
-                .sorted(Map.Entry.<String,Integer>comparingByValue().reversed()
-                        .thenComparing(Map.Entry::getKey))
+                .map(e -> new WordCount(e.getKey(), e.getValue()))
+                .sorted(WordSort.FREQUENCY_DESC.comparator())
                 .collect(Collectors.toList());
     }
 